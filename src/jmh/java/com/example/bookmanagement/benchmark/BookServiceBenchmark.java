@@ -0,0 +1,87 @@
+package com.example.bookmanagement.benchmark;
+
+import com.example.bookmanagement.cache.ReadThroughCache;
+import com.example.bookmanagement.cache.SearchCacheInvalidator;
+import com.example.bookmanagement.cache.SingleFlight;
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.search.CatalogReplica;
+import com.example.bookmanagement.search.TrigramIndex;
+import com.example.bookmanagement.service.impl.BookServiceImpl;
+import com.example.bookmanagement.service.impl.BookWriteOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU and allocation of {@link BookServiceImpl} without Mongo: the repository returns
+ * prepared {@link BookDTO} projections, so the numbers cover branch dispatch and result wrapping only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int resultSize;
+
+    private BookServiceImpl bookService;
+
+    @Setup
+    public void setUp() {
+        List<BookDTO> books = new ArrayList<>(resultSize + 1);
+        for (int i = 0; i <= resultSize; i++) {
+            books.add(new BookDTO(new ObjectId().toHexString(),
+                    "Title " + i, "Author " + (i % 50), "Description of book " + i, i % 3 != 0));
+        }
+        List<BookDTO> result = books.subList(0, resultSize);
+
+        // Every finder returns the prepared books; anything else is not expected on these paths.
+        BookRepository repository = (BookRepository) Proxy.newProxyInstance(
+                BookRepository.class.getClassLoader(),
+                new Class<?>[]{BookRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findPage")) {
+                        return books;
+                    }
+                    if (method.getName().startsWith("find")) {
+                        return result;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        bookService = new BookServiceImpl(repository, event -> {}, new TrigramIndex(false),
+                new CatalogReplica(false, "unused", event -> {}), new SingleFlight(false, new SearchCacheInvalidator(new NoOpCacheManager()), new SimpleMeterRegistry()),
+                new ReadThroughCache(new NoOpCacheManager(), new SearchCacheInvalidator(new NoOpCacheManager())),
+                new BookWriteOrder());
+    }
+
+    @Benchmark
+    public List<BookDTO> searchAll() {
+        return bookService.searchBooks(null, null, null);
+    }
+
+    @Benchmark
+    public List<BookDTO> searchByTitleAndAvailable() {
+        return bookService.searchBooks("Title", null, true);
+    }
+
+    @Benchmark
+    public List<BookDTO> searchByTitleAuthorAndAvailable() {
+        return bookService.searchBooks("Title", "Author", true);
+    }
+
+    @Benchmark
+    public BookPage searchPage() {
+        return bookService.searchBooks(null, null, null, null, resultSize);
+    }
+}
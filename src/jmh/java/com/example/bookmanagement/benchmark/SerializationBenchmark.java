@@ -0,0 +1,71 @@
+package com.example.bookmanagement.benchmark;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the request and response bodies, using an ObjectMapper configured the way Spring Boot's is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int resultSize;
+
+    private ObjectWriter bookListWriter;
+    private ObjectWriter errorWriter;
+    private ObjectReader partialReader;
+    private List<BookDTO> books;
+    private ErrorResponse errorResponse;
+    private byte[] partialJson;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bookListWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BookDTO.class));
+        errorWriter = objectMapper.writerFor(ErrorResponse.class);
+        partialReader = objectMapper.readerFor(PartialDTO.class);
+
+        books = new ArrayList<>(resultSize);
+        for (int i = 0; i < resultSize; i++) {
+            books.add(new BookDTO("Title " + i, "Author " + (i % 50), "Description of book " + i, i % 3 != 0));
+        }
+        errorResponse = new ErrorResponse(LocalDateTime.now(), 404, "Not Found",
+                "Book not found with id: 65f1c0ffee0123456789abcd", "/api/books/65f1c0ffee0123456789abcd");
+        partialJson = """
+                {"title": "New Title", "available": false}
+                """.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeBookList() throws Exception {
+        return bookListWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeErrorResponse() throws Exception {
+        return errorWriter.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public PartialDTO deserializePartialDTO() throws Exception {
+        return partialReader.readValue(partialJson);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bookmanagement.cache;
+
+import com.example.bookmanagement.model.Book;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Cache key for a search. Terms are lower-cased because search matching ignores case,
+ * so "Clean" and "clean" share one entry.
+ */
+public final class BookSearchKey {
+    private final String title;
+    private final String author;
+    private final Boolean available;
+
+    private BookSearchKey(String title, String author, Boolean available) {
+        this.title = title;
+        this.author = author;
+        this.available = available;
+    }
+
+    public static BookSearchKey of(String title, String author, Boolean available) {
+        return new BookSearchKey(normalize(title), normalize(author), available);
+    }
+
+    /**
+     * Whether the book would appear in the results for this key. Used to find the entries a write invalidates.
+     */
+    public boolean matches(Book book) {
+        return book != null
+                && (title == null || normalize(book.getTitle()).contains(title))
+                && (author == null || normalize(book.getAuthor()).contains(author))
+                && (available == null || book.isAvailable() == available);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookSearchKey that)) return false;
+        return Objects.equals(title, that.title)
+                && Objects.equals(author, that.author)
+                && Objects.equals(available, that.available);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, author, available);
+    }
+
+    @Override
+    public String toString() {
+        return "BookSearchKey{title=" + title + ", author=" + author + ", available=" + available + "}";
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bookmanagement.cache;
+
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.event.CatalogReloadedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A version of the whole catalog that changes on every write, used as the ETag of the read endpoints:
+ * a client holding the current ETag already has what it would be sent again. The epoch is chosen per start,
+ * so an ETag issued before a restart never matches. Like the caches, it only sees writes made through this instance.
+ * <p>
+ * The ETag is weak because the same version is served both gzip-compressed and uncompressed, and a strong
+ * validator would have to differ between the two; Tomcat does not compress responses that carry one.
+ * Weak comparison is all {@code If-None-Match} needs.
+ * <p>
+ * The version is bumped after the listeners ordered at {@link BookChangedEvent#READ_MODEL_ORDER} have updated
+ * the caches and indexes, so a reader that sees the new version also reads the new data. Read the ETag before
+ * reading the data it describes. A {@link CatalogReloadedEvent} bumps it too, since reloaded indexes may
+ * answer differently.
+ */
+@Component
+public class CatalogVersion {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onBookChanged(BookChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * The number of writes and reloads seen since startup.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public String etag() {
+        return "W/\"" + epoch + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bookmanagement.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Reads the search caches, running the query and storing its result on a miss. A result is only kept if the
+ * {@link SearchCacheInvalidator} did not run while the query did: the query may have read the catalog from
+ * before that write, and the invalidation it would have needed has already happened. Such a result is still
+ * returned, it is just not cached.
+ */
+@Component
+public class ReadThroughCache {
+    private final CacheManager cacheManager;
+    private final SearchCacheInvalidator invalidator;
+
+    public ReadThroughCache(CacheManager cacheManager, SearchCacheInvalidator invalidator) {
+        this.cacheManager = cacheManager;
+        this.invalidator = invalidator;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, Object key, Supplier<T> query) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return query.get();
+        }
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        long invalidations = invalidator.invalidations();
+        T result = query.get();
+        // Never replaces an entry stored meanwhile: it was read no earlier than this result, and evicting
+        // it below would throw away a result that is current.
+        boolean stored = cache.putIfAbsent(key, result) == null;
+        // Checked after the put: an invalidation that starts later evicts the entry itself.
+        if (stored && invalidator.invalidations() != invalidations) {
+            cache.evict(key);
+        }
+        return result;
+    }
+}
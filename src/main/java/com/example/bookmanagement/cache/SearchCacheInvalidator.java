@@ -0,0 +1,71 @@
+package com.example.bookmanagement.cache;
+
+import com.example.bookmanagement.config.CacheConfig;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.event.CatalogReloadedEvent;
+import com.example.bookmanagement.model.Book;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evicts only the cached searches a write can affect: those whose filters match the book
+ * before or after the change. Everything else stays cached until its TTL. A reload of the catalog indexes
+ * clears both caches.
+ * <p>
+ * Runs after the other read models have applied the write, so a search that misses once the entries are gone
+ * reads the new data. {@link ReadThroughCache} uses the count of invalidations to drop results read before.
+ */
+@Component
+public class SearchCacheInvalidator {
+    private final CacheManager cacheManager;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    @Order(BookChangedEvent.READ_MODEL_ORDER + 1)
+    public void onBookChanged(BookChangedEvent event) {
+        invalidations.incrementAndGet();
+        Book before = event.getBefore();
+        Book after = event.getAfter();
+
+        Cache searchCache = cacheManager.getCache(CacheConfig.BOOK_SEARCH_CACHE);
+        if (searchCache != null
+                && searchCache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            nativeCache.asMap().keySet().removeIf(key ->
+                    key instanceof BookSearchKey searchKey && (searchKey.matches(before) || searchKey.matches(after)));
+        }
+
+        Cache titlesCache = cacheManager.getCache(CacheConfig.AVAILABLE_TITLES_CACHE);
+        if (titlesCache != null
+                && ((before != null && before.isAvailable()) || (after != null && after.isAvailable()))) {
+            titlesCache.clear();
+        }
+    }
+
+    @EventListener
+    @Order(BookChangedEvent.READ_MODEL_ORDER + 1)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        invalidations.incrementAndGet();
+        for (String name : new String[]{CacheConfig.BOOK_SEARCH_CACHE, CacheConfig.AVAILABLE_TITLES_CACHE}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * The number of writes and reloads the caches have been invalidated for, counted as each invalidation starts.
+     */
+    public long invalidations() {
+        return invalidations.get();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bookmanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs concurrent identical reads once. The first call for a key runs the query; calls with the same key that
+ * arrive while it is running wait for it and get the same result, or the same exception. Nothing is kept once
+ * the query returns, so this only collapses a burst; the caches serve repeats after that.
+ * <p>
+ * A call only joins a query started at the current {@link SearchCacheInvalidator#invalidations() invalidation
+ * count}, the same counter {@link ReadThroughCache} checks before storing a result. That count moves as soon as a
+ * write starts evicting the caches, so a read that misses after the eviction never gets a result that may have
+ * been read before the write. Keying on {@link CatalogVersion} would not do: it is bumped after the eviction,
+ * and a read missing in between would join the older query and cache its result under the new ETag.
+ * <p>
+ * Every call is counted in {@value #METRIC_NAME}, tagged with the operation and whether it ran the query or
+ * joined one. Off when {@code books.coalescing.enabled} is false.
+ */
+@Component
+public class SingleFlight {
+    public static final String METRIC_NAME = "books.coalescing.calls";
+
+    /**
+     * The reads that can be coalesced, each counted under its own {@code operation} tag.
+     */
+    public enum Operation {
+        SEARCH, CHECK
+    }
+
+    private final boolean enabled;
+    private final SearchCacheInvalidator invalidator;
+    private final Map<Operation, Counter> executed = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> coalesced = new EnumMap<>(Operation.class);
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    public SingleFlight(@Value("${books.coalescing.enabled:true}") boolean enabled, SearchCacheInvalidator invalidator,
+                        MeterRegistry registry) {
+        this.enabled = enabled;
+        this.invalidator = invalidator;
+        if (enabled) {
+            for (Operation operation : Operation.values()) {
+                executed.put(operation, counter(registry, operation, "executed"));
+                coalesced.put(operation, counter(registry, operation, "coalesced"));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Operation operation, Object key, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        FlightKey flightKey = new FlightKey(operation, key, invalidator.invalidations());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            coalesced.get(operation).increment();
+            return (T) join(running);
+        }
+
+        executed.get(operation).increment();
+        try {
+            T result = query.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            // Rethrow what the query threw, so joined calls fail exactly like the one that ran it.
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, Operation operation, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Reads that ran a query, or joined an identical one already running")
+                .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record FlightKey(Operation operation, Object key, long invalidations) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bookmanagement.config;
+
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.ImportResult;
+import com.example.bookmanagement.service.BookImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Imports the file named by {@code books.import.file} at startup, for loading a new environment from the
+ * command line without going through HTTP:
+ * <pre>
+ * java -jar bookmanagement.jar --books.import.file=books.csv --spring.main.web-application-type=none
+ * </pre>
+ * The format comes from {@code books.import.format}, or else the file extension. Without a web server the
+ * application exits once the import is done, and a failed import fails startup.
+ */
+@Component
+@ConditionalOnProperty("books.import.file")
+public class BookImportRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(BookImportRunner.class);
+
+    private final BookImportService bookImportService;
+    private final Path file;
+    private final String format;
+
+    public BookImportRunner(
+            BookImportService bookImportService,
+            @Value("${books.import.file}") String file,
+            @Value("${books.import.format:}") String format
+    ) {
+        this.bookImportService = bookImportService;
+        this.file = Path.of(file);
+        this.format = format;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        BookFormat bookFormat = format.isEmpty()
+                ? (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? BookFormat.CSV : BookFormat.NDJSON)
+                : BookFormat.of(format);
+        log.info("Importing {} as {}", file, bookFormat);
+        ImportResult result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = bookImportService.importBooks(in, bookFormat);
+        }
+        result.rejections().forEach(rejection ->
+                log.warn("Rejected row {} of {}: {}", rejection.getIndex(), file, rejection.getError()));
+        if (result.rejected() > result.rejections().size()) {
+            log.warn("{} more rows were rejected", result.rejected() - result.rejections().size());
+        }
+    }
+}
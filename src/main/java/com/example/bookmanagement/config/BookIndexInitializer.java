@@ -0,0 +1,151 @@
+package com.example.bookmanagement.config;
+
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepositoryImpl;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes declared on {@link Book} when the application starts and drops the ones no longer declared,
+ * then asks Mongo to explain every query shape an index can serve and reports any that would scan the whole
+ * collection. Creating an index that already exists is a no-op, so this is safe on every start.
+ */
+@Component
+public class BookIndexInitializer implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(BookIndexInitializer.class);
+    /**
+     * Single-field title and author indexes from earlier versions. The repository matches those fields with
+     * unanchored case-insensitive regexes, which can only walk every key of such an index, so they cost every
+     * write without making a read faster.
+     */
+    static final List<String> RETIRED_INDEXES = List.of("title", "author");
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final boolean ensureOnStartup;
+    private final boolean verifyOnStartup;
+    private final boolean failOnCollectionScan;
+
+    public BookIndexInitializer(
+            MongoTemplate mongoTemplate,
+            MongoMappingContext mappingContext,
+            @Value("${books.indexes.ensure-on-startup:true}") boolean ensureOnStartup,
+            @Value("${books.indexes.verify-on-startup:true}") boolean verifyOnStartup,
+            @Value("${books.indexes.fail-on-collscan:false}") boolean failOnCollectionScan
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.ensureOnStartup = ensureOnStartup;
+        this.verifyOnStartup = verifyOnStartup;
+        this.failOnCollectionScan = failOnCollectionScan;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (ensureOnStartup) {
+                ensureIndexes();
+            }
+            if (verifyOnStartup) {
+                verifyQueryPlans();
+            }
+        } catch (DataAccessException | MongoException ex) {
+            // The explains go through the driver directly, so their errors arrive untranslated.
+            log.error("Could not create or verify indexes for the books collection", ex);
+        }
+    }
+
+    private void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Book.class);
+        new MongoPersistentEntityIndexResolver(mappingContext)
+                .resolveIndexFor(Book.class)
+                .forEach(index -> log.info("Ensured index {} on books", indexOps.ensureIndex(index)));
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(RETIRED_INDEXES::contains)
+                .forEach(name -> {
+                    indexOps.dropIndex(name);
+                    log.info("Dropped retired index {} on books", name);
+                });
+    }
+
+    private void verifyQueryPlans() {
+        List<String> collectionScans = new ArrayList<>();
+        queryShapes().forEach((name, query) -> {
+            Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Book.class))
+                    .find(query.getQueryObject())
+                    .projection(query.getFieldsObject())
+                    .explain(ExplainVerbosity.QUERY_PLANNER);
+            if (usesCollectionScan(plan)) {
+                collectionScans.add(name);
+            }
+        });
+
+        if (collectionScans.isEmpty()) {
+            log.info("All books query shapes are served by an index");
+            return;
+        }
+        String message = "Books queries resolve to COLLSCAN, check the indexes on the books collection: " + collectionScans;
+        if (failOnCollectionScan) {
+            throw new IllegalStateException(message);
+        }
+        log.error(message);
+    }
+
+    /**
+     * One representative query per shape issued by {@code BookRepository} that an index can bound: every shape
+     * filtering on availability, which leads the compound indexes. Keep in step with
+     * {@code BookServiceImpl.searchBooks}. Title-only and author-only substring searches are not listed, since an
+     * unanchored regex cannot bound an index scan; the trigram index answers them. Neither are unfiltered reads,
+     * {@code findAllBy} and the scans over {@code _id}, which return the whole collection.
+     */
+    static Map<String, Query> queryShapes() {
+        Map<String, Query> shapes = new LinkedHashMap<>();
+        shapes.put("title+author+available", new Query(BookRepositoryImpl.searchCriteria("a", "a", true)));
+        shapes.put("title+available", new Query(BookRepositoryImpl.searchCriteria("a", null, true)));
+        shapes.put("author+available", new Query(BookRepositoryImpl.searchCriteria(null, "a", true)));
+        shapes.put("available", new Query(BookRepositoryImpl.searchCriteria(null, null, true)));
+
+        Query titles = new Query(BookRepositoryImpl.searchCriteria(null, null, true));
+        titles.fields().include("title").exclude("_id");
+        shapes.put("available titles", titles);
+        return shapes;
+    }
+
+    static boolean usesCollectionScan(Document explain) {
+        Object queryPlanner = explain.get("queryPlanner");
+        return queryPlanner instanceof Document planner && containsStage(planner.get("winningPlan"), "COLLSCAN");
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bookmanagement.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are Caffeine caches configured through {@code spring.cache.caffeine.spec}.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics on the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String BOOK_SEARCH_CACHE = "bookSearch";
+    public static final String AVAILABLE_TITLES_CACHE = "availableTitles";
+}
@@ -0,0 +1,52 @@
+package com.example.bookmanagement.config;
+
+import com.example.bookmanagement.metrics.MongoDocumentMetricsListener;
+import com.example.bookmanagement.metrics.SlowQueryDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool sizing and extra instrumentation for the Mongo driver. The pool defaults are the driver's own;
+ * the virtual-threads profile raises them because request concurrency is no longer capped by a thread pool.
+ * Command latency and pool gauges come from Spring Boot's Mongo metrics auto-configuration; slow queries are
+ * captured by {@link SlowQueryDetector} unless {@code books.slow-query.enabled} is false.
+ */
+@Configuration
+public class MongoClientConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${books.mongo.max-pool-size:100}") int maxPoolSize,
+            @Value("${books.mongo.min-pool-size:0}") int minPoolSize,
+            @Value("${books.mongo.max-connecting:2}") int maxConnecting,
+            @Value("${books.mongo.max-wait-time-ms:120000}") long maxWaitTimeMs
+    ) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .minSize(minPoolSize)
+                .maxConnecting(maxConnecting)
+                .maxWaitTime(maxWaitTimeMs, TimeUnit.MILLISECONDS));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer documentMetricsCustomizer(MeterRegistry meterRegistry) {
+        return settings -> settings.addCommandListener(new MongoDocumentMetricsListener(meterRegistry));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryCustomizer(
+            SlowQueryDetector slowQueryDetector,
+            @Value("${books.slow-query.enabled:true}") boolean enabled
+    ) {
+        return settings -> {
+            if (enabled) {
+                settings.addCommandListener(slowQueryDetector);
+            }
+        };
+    }
+}
@@ -1,26 +1,82 @@
 package com.example.bookmanagement.controller;
 
+import com.example.bookmanagement.cache.CatalogVersion;
 import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.CatalogStats;
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.dto.BookSuggestions;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.ImportResult;
+import com.example.bookmanagement.service.BookBulkService;
+import com.example.bookmanagement.service.BookExportService;
+import com.example.bookmanagement.service.BookImportService;
 import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.search.SuggestionIndex;
 import com.example.bookmanagement.service.BookService;
+import com.example.bookmanagement.stats.CatalogStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/books")
 public class BookController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String BOOK_COUNT_TRAILER = "X-Book-Count";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
 
     private final BookService bookService;
+    private final BookBulkService bookBulkService;
+    private final BookExportService bookExportService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final CatalogStatistics catalogStatistics;
+    private final SuggestionIndex suggestionIndex;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookBulkService bookBulkService,
+                          BookExportService bookExportService, BookImportService bookImportService,
+                          ObjectMapper objectMapper,
+                          CatalogVersion catalogVersion, CatalogStatistics catalogStatistics,
+                          SuggestionIndex suggestionIndex) {
         this.bookService = bookService;
+        this.bookBulkService = bookBulkService;
+        this.bookExportService = bookExportService;
+        this.bookImportService = bookImportService;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.catalogStatistics = catalogStatistics;
+        this.suggestionIndex = suggestionIndex;
     }
 
     @PostMapping("/create")
@@ -49,20 +105,164 @@ public class BookController {
     public String createBook(@Valid @RequestBody BookDTO bookDTO){
         return bookService.createBook(bookDTO);
     }
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Enter many books at once",
+    description = "Each book is validated on its own; the result lists the new id or the error for every item.")
+    public BulkCreateResult createBooks(@RequestBody List<BookDTO> books){
+        return bookBulkService.createBooks(books.iterator());
+    }
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Enter many books at once from newline-delimited JSON")
+    public BulkCreateResult createBooksFromStream(HttpServletRequest request) throws IOException {
+        try (MappingIterator<BookDTO> books = objectMapper.readerFor(BookDTO.class).readValues(request.getInputStream())) {
+            return bookBulkService.createBooks(books);
+        }
+    }
+    @PostMapping("/import")
+    @Operation(summary = "Load a large newline-delimited JSON or CSV file of books",
+    description = "The body is read as it arrives and written in parallel unordered batches. The result counts the "
+            + "rows read, imported and rejected, with the reason for the first rejected rows. A CSV file starts "
+            + "with a header naming its columns, as in the export.")
+    public ImportResult importBooks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request
+        ) throws IOException {
+        return bookImportService.importBooks(request.getInputStream(), BookFormat.of(format));
+    }
     @GetMapping("/search")
-    @Operation(summary = "Get information of Books")
-    public List<BookDTO> searchBooks(
+    @Operation(summary = "Get information of Books",
+    description = "Pass limit and/or cursor to page through results; the cursor for the next page is returned in the "
+            + NEXT_CURSOR_HEADER + " header. Responses carry an ETag; send it back in If-None-Match to get "
+            + "304 Not Modified while the catalog is unchanged.")
+    public ResponseEntity<List<BookDTO>> searchBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) Boolean available
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
         ){
-        return bookService.searchBooks(title, author, available);
+        if (request.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(bookService.searchBooks(title, author, available));
+        }
+
+        BookPage page = bookService.searchBooks(title, author, available, cursor,
+                limit != null ? limit : DEFAULT_PAGE_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBooks());
+    }
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream information of Books as newline-delimited JSON",
+    description = "A complete response ends with an X-Book-Count trailer holding the number of books sent.")
+    public ResponseEntity<StreamingResponseBody> streamBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Boolean available,
+            WebRequest request,
+            HttpServletResponse response
+        ){
+        if (request.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        AtomicLong written = countTrailer(response);
+        StreamingResponseBody body = out -> {
+            try (Stream<BookDTO> books = bookService.streamBooks(title, author, available);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                Iterator<BookDTO> iterator = books.iterator();
+                long count = 0;
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++count == 1) {
+                        // Get the first row out right away; after that let the response buffer batch writes.
+                        generator.flush();
+                    }
+                }
+                written.set(count);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    @GetMapping("/export")
+    @Operation(summary = "Download the whole catalog as newline-delimited JSON or CSV",
+    description = "Books are streamed in id order. If a download breaks off, pass the id of the last book "
+            + "received as after to continue from the next one. A complete download ends with an X-Book-Count "
+            + "trailer holding the number of books sent.")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String after,
+            HttpServletResponse response
+        ){
+        BookFormat exportFormat = BookFormat.of(format);
+        BookExportService.BookExport export = bookExportService.export(exportFormat, after);
+        AtomicLong written = countTrailer(response);
+        StreamingResponseBody body = out -> written.set(export.writeTo(out));
+        return ResponseEntity.ok()
+                .contentType(exportFormat == BookFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books." + (exportFormat == BookFormat.CSV ? "csv" : "ndjson"))
+                        .build().toString())
+                .body(body);
+    }
+    @GetMapping("/search/text")
+    @Operation(summary = "Search titles, authors and descriptions for words, best matches first",
+    description = "Words match regardless of case and word endings; put a phrase in double quotes to require it "
+            + "and prefix a word with - to exclude it. Returns at most limit books, ranked by relevance score.")
+    public List<BookSearchHit> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request
+        ){
+        if (request.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        return bookService.searchText(q, available, limit);
+    }
+    @GetMapping("/suggest")
+    @Operation(summary = "Complete a prefix to titles and authors, for type-ahead",
+    description = "Matches the start of any word, ignoring case, and ranks completions by number of books. "
+            + "Answered from memory; both lists are empty, and not cacheable, while the index is still loading.")
+    public ResponseEntity<BookSuggestions> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request
+        ){
+        if (!suggestionIndex.isReady()) {
+            // Empty lists here only mean the index is loading, so nothing should keep them or revalidate them.
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(suggestionIndex.suggest(prefix, limit));
+        }
+        if (request.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(suggestionIndex.suggest(prefix, limit));
     }
     @GetMapping("/check")
     @Operation(summary = "Check names of available books")
-    public List<String> getAvailableBookTitles(){
+    public List<String> getAvailableBookTitles(WebRequest request){
+        if (request.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
         return bookService.getAvailableBookTitles();
     }
+    @GetMapping("/stats")
+    @Operation(summary = "Count books in total, by availability and for the authors with the most books")
+    public CatalogStats getStatistics(@RequestParam(defaultValue = "10") int top, WebRequest request){
+        if (request.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        return catalogStatistics.getStats(top);
+    }
     @PatchMapping("/{id}")
     @Operation(summary = "Update details of the book")
     public String updateBook(@PathVariable String id, @RequestBody PartialDTO updates) {
@@ -77,4 +277,22 @@ public class BookController {
     public String deleteBook(@PathVariable String id){
         return bookService.deleteBook(id);
     }
+
+    /**
+     * Declares the {@value #BOOK_COUNT_TRAILER} trailer, sent with the count once a streamed body has been
+     * written in full. A response cut short, by a failed cursor for instance, ends without it. Connections that
+     * cannot carry trailers, such as HTTP/1.0 ones, go without.
+     */
+    private static AtomicLong countTrailer(HttpServletResponse response) {
+        AtomicLong written = new AtomicLong(-1);
+        try {
+            response.setTrailerFields(() -> written.get() < 0
+                    ? Map.of()
+                    : Map.of(BOOK_COUNT_TRAILER, Long.toString(written.get())));
+            response.setHeader(HttpHeaders.TRAILER, BOOK_COUNT_TRAILER);
+        } catch (IllegalStateException ex) {
+            // Trailers are not supported on this connection.
+        }
+        return written;
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.bookmanagement.controller;
+
+import com.example.bookmanagement.dto.ConcurrencyLimitStatus;
+import com.example.bookmanagement.limit.ConcurrencyLimitFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/concurrency-limits")
+@Profile("!reactive")
+public class ConcurrencyLimitController {
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    public ConcurrencyLimitController(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+    }
+
+    @GetMapping
+    @Operation(summary = "Show the current concurrency limit, requests in flight and rejections for reads and writes")
+    public ResponseEntity<List<ConcurrencyLimitStatus>> getConcurrencyLimits() {
+        return ResponseEntity.ok(concurrencyLimitFilter.status());
+    }
+}
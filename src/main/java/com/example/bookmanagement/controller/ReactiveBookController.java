@@ -0,0 +1,166 @@
+package com.example.bookmanagement.controller;
+
+import com.example.bookmanagement.cache.CatalogVersion;
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.dto.BookSuggestions;
+import com.example.bookmanagement.dto.CatalogStats;
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.search.SuggestionIndex;
+import com.example.bookmanagement.service.ReactiveBookService;
+import com.example.bookmanagement.stats.CatalogStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux version of {@link BookController}, active with the {@code reactive} profile.
+ * Same routes and payloads; search results are streamed with backpressure from the Mongo cursor.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/books")
+public class ReactiveBookController {
+
+    private final ReactiveBookService bookService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogStatistics catalogStatistics;
+    private final SuggestionIndex suggestionIndex;
+
+    public ReactiveBookController(ReactiveBookService bookService, CatalogVersion catalogVersion,
+                                  CatalogStatistics catalogStatistics, SuggestionIndex suggestionIndex) {
+        this.bookService = bookService;
+        this.catalogVersion = catalogVersion;
+        this.catalogStatistics = catalogStatistics;
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @PostMapping("/create")
+    @Operation(summary = "Enter a new book")
+    public Mono<String> createBook(@Valid @RequestBody BookDTO bookDTO){
+        return bookService.createBook(bookDTO);
+    }
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Enter many books at once")
+    public Mono<BulkCreateResult> createBooks(@RequestBody Flux<BookDTO> books){
+        return bookService.createBooks(books);
+    }
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get information of Books")
+    public Mono<ResponseEntity<Flux<BookDTO>>> searchBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange
+        ){
+        if (exchange.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return Mono.just(ResponseEntity.ok(bookService.searchBooks(title, author, available)));
+        }
+
+        return bookService.searchBooks(title, author, available, cursor,
+                        limit != null ? limit : BookController.DEFAULT_PAGE_SIZE)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(BookController.NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(Flux.fromIterable(page.getBooks()));
+                });
+    }
+    @GetMapping("/export")
+    @Operation(summary = "Download the whole catalog as newline-delimited JSON or CSV")
+    public ResponseEntity<Flux<BookDTO>> exportBooks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String after
+        ){
+        // format=csv is mapped to exportCsv; the encoder is picked from the declared element type.
+        BookFormat.of(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("books.ndjson"))
+                .body(bookService.exportBooks(after));
+    }
+    @GetMapping(value = "/export", params = "format=csv")
+    public ResponseEntity<Flux<String>> exportCsv(@RequestParam(required = false) String after){
+        return ResponseEntity.ok()
+                .contentType(BookController.TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("books.csv"))
+                .body(bookService.exportCsv(after));
+    }
+    @GetMapping("/search/text")
+    @Operation(summary = "Search titles, authors and descriptions for words, best matches first")
+    public Flux<BookSearchHit> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "20") int limit,
+            ServerWebExchange exchange
+        ){
+        if (exchange.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        return bookService.searchText(q, available, limit);
+    }
+    @GetMapping("/suggest")
+    @Operation(summary = "Complete a prefix to titles and authors, for type-ahead")
+    public Mono<BookSuggestions> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            ServerWebExchange exchange
+        ){
+        if (!suggestionIndex.isReady()) {
+            // Empty lists here only mean the index is loading, so nothing should keep them or revalidate them.
+            exchange.getResponse().getHeaders().setCacheControl(CacheControl.noStore());
+        } else if (exchange.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        return Mono.fromCallable(() -> suggestionIndex.suggest(prefix, limit));
+    }
+    @GetMapping("/check")
+    @Operation(summary = "Check names of available books")
+    public Flux<String> getAvailableBookTitles(ServerWebExchange exchange){
+        if (exchange.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        return bookService.getAvailableBookTitles();
+    }
+    @GetMapping("/stats")
+    @Operation(summary = "Count books in total, by availability and for the authors with the most books")
+    public Mono<CatalogStats> getStatistics(@RequestParam(defaultValue = "10") int top, ServerWebExchange exchange){
+        if (exchange.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        // Served from memory once loaded; before that the fallback aggregation blocks, so keep it off the event loop.
+        return Mono.fromCallable(() -> catalogStatistics.getStats(top)).subscribeOn(Schedulers.boundedElastic());
+    }
+    @PatchMapping("/{id}")
+    @Operation(summary = "Update details of the book")
+    public Mono<String> updateBook(@PathVariable String id, @RequestBody PartialDTO updates) {
+        return bookService.updateBook(id, updates);
+    }
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a book")
+    public Mono<String> deleteBook(@PathVariable String id){
+        return bookService.deleteBook(id);
+    }
+
+    private static String attachment(String filename) {
+        return ContentDisposition.attachment().filename(filename).build().toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bookmanagement.controller;
+
+import com.example.bookmanagement.dto.SlowQuery;
+import com.example.bookmanagement.metrics.SlowQueryLog;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/slow-queries")
+public class SlowQueryController {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryController(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @GetMapping
+    @Operation(summary = "List the most recent slow Mongo queries, newest first, with their redacted shape and explain plan")
+    public ResponseEntity<List<SlowQuery>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryLog.recent());
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Clear the slow query log")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueryLog.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.bookmanagement.dto;
+
+public record AuthorCount(String author, long books, long available) {
+}
@@ -0,0 +1,20 @@
+package com.example.bookmanagement.dto;
+
+import java.util.Locale;
+
+/**
+ * The file formats the catalog is exported and imported in.
+ */
+public enum BookFormat {
+    NDJSON,
+    CSV;
+
+    public static BookFormat of(String name) {
+        for (BookFormat format : values()) {
+            if (format.name().toLowerCase(Locale.ROOT).equals(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Format must be ndjson or csv");
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bookmanagement.dto;
+
+import java.util.List;
+
+public class BookPage {
+    private List<BookDTO> books;
+    private String nextCursor;
+
+    public BookPage() {}
+
+    public BookPage(List<BookDTO> books, String nextCursor) {
+        this.books = books;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookDTO> getBooks() {
+        return books;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setBooks(List<BookDTO> books) {
+        this.books = books;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
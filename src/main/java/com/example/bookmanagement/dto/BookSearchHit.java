@@ -0,0 +1,17 @@
+package com.example.bookmanagement.dto;
+
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+/**
+ * A book found by full-text search, with the relevance Mongo's text index gave it. Higher scores match
+ * the search terms more closely; they are only comparable within one search.
+ */
+public record BookSearchHit(
+        String id,
+        String title,
+        String author,
+        String description,
+        boolean available,
+        @TextScore double score
+) {
+}
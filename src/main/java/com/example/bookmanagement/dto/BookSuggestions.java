@@ -0,0 +1,9 @@
+package com.example.bookmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Title and author completions for a prefix, each ordered by number of books, most first.
+ */
+public record BookSuggestions(List<Suggestion> titles, List<Suggestion> authors) {
+}
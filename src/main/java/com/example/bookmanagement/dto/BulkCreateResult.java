@@ -0,0 +1,41 @@
+package com.example.bookmanagement.dto;
+
+import java.util.List;
+
+public class BulkCreateResult {
+    private int created;
+    private int failed;
+    private List<BulkItemResult> items;
+
+    public BulkCreateResult() {}
+
+    public BulkCreateResult(List<BulkItemResult> items) {
+        this.items = items;
+        this.failed = (int) items.stream().filter(item -> item.getError() != null).count();
+        this.created = items.size() - failed;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public void setItems(List<BulkItemResult> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bookmanagement.dto;
+
+public class BulkItemResult {
+    private int index;
+    private String id;
+    private String error;
+
+    public BulkItemResult() {}
+
+    public BulkItemResult(int index, String id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkItemResult created(int index, String id) {
+        return new BulkItemResult(index, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
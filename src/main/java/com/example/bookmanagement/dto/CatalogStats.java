@@ -0,0 +1,9 @@
+package com.example.bookmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Counts over the whole catalog. {@code topAuthors} is ordered by number of books, most first.
+ */
+public record CatalogStats(long total, long available, long unavailable, List<AuthorCount> topAuthors) {
+}
@@ -0,0 +1,15 @@
+package com.example.bookmanagement.dto;
+
+/**
+ * The current state of the concurrency limit for one kind of route, with the short- and long-term average
+ * response times that drive it.
+ */
+public record ConcurrencyLimitStatus(
+        String route,
+        int limit,
+        int inFlight,
+        long rejected,
+        double shortRttMillis,
+        double longRttMillis
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.bookmanagement.dto;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk import. {@code rejections} holds the first rejected rows by index, up to a fixed
+ * number, while {@code rejected} counts all of them.
+ */
+public record ImportResult(
+        long read,
+        long imported,
+        long rejected,
+        long elapsedMillis,
+        long rowsPerSecond,
+        List<BulkItemResult> rejections
+) {
+}
@@ -0,0 +1,90 @@
+package com.example.bookmanagement.dto;
+
+import java.time.Instant;
+
+public class SlowQuery {
+    private Instant timestamp;
+    private String database;
+    private String collection;
+    private String command;
+    private long durationMillis;
+    private String shape;
+    private Long docsReturned;
+    private Long docsExamined;
+    private Long keysExamined;
+    private String plan;
+    private String explainError;
+
+    public SlowQuery() {}
+
+    public SlowQuery(Instant timestamp, String database, String collection, String command,
+                     long durationMillis, String shape, Long docsReturned) {
+        this.timestamp = timestamp;
+        this.database = database;
+        this.collection = collection;
+        this.command = command;
+        this.durationMillis = durationMillis;
+        this.shape = shape;
+        this.docsReturned = docsReturned;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public Long getDocsReturned() {
+        return docsReturned;
+    }
+
+    public Long getDocsExamined() {
+        return docsExamined;
+    }
+
+    public Long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public String getExplainError() {
+        return explainError;
+    }
+
+    public void setDocsExamined(Long docsExamined) {
+        this.docsExamined = docsExamined;
+    }
+
+    public void setKeysExamined(Long keysExamined) {
+        this.keysExamined = keysExamined;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public void setExplainError(String explainError) {
+        this.explainError = explainError;
+    }
+}
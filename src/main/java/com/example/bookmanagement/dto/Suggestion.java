@@ -0,0 +1,4 @@
+package com.example.bookmanagement.dto;
+
+public record Suggestion(String text, int books) {
+}
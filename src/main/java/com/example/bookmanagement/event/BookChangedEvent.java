@@ -0,0 +1,47 @@
+package com.example.bookmanagement.event;
+
+import com.example.bookmanagement.model.Book;
+
+/**
+ * Published by the service after a book has been written. {@code before} is null for a newly
+ * created book and {@code after} is null for a deleted one; both are detached snapshots.
+ */
+public class BookChangedEvent {
+    /**
+     * Order for listeners that keep a cache or index in step with writes. They run before
+     * {@code CatalogVersion} announces the write to clients.
+     */
+    public static final int READ_MODEL_ORDER = 0;
+
+    private final Book before;
+    private final Book after;
+
+    private BookChangedEvent(Book before, Book after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(null, book);
+    }
+
+    public static BookChangedEvent updated(Book before, Book after) {
+        return new BookChangedEvent(before, after);
+    }
+
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(book, null);
+    }
+
+    public Book getBefore() {
+        return before;
+    }
+
+    public Book getAfter() {
+        return after;
+    }
+
+    public String getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bookmanagement.event;
+
+/**
+ * Published once in-process indexes have been reloaded from Mongo and serve the fresh copy. What they answer
+ * may differ from before without any {@link BookChangedEvent}, so caches and versions derived from it are
+ * reset as for a write to every book.
+ */
+public class CatalogReloadedEvent {
+}
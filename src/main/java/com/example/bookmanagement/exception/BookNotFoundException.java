@@ -0,0 +1,11 @@
+package com.example.bookmanagement.exception;
+
+/**
+ * Thrown when no book has the requested id. A missing id is an expected outcome rather than
+ * a bug, so the exception skips capturing a stack trace.
+ */
+public class BookNotFoundException extends RuntimeException {
+    public BookNotFoundException(String id) {
+        super("Book not found with id: " + id, null, false, false);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bookmanagement.exception;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link GlobalExceptionHandler}, producing the same {@link ErrorResponse} bodies.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationErrors(
+            WebExchangeBindException ex,
+            ServerHttpRequest request
+    ) {
+        List<String> errorMessage = ex.getBindingResult().getAllErrors().stream()
+                .map(error -> ((FieldError) error).getDefaultMessage())
+                .toList();
+
+        return error(HttpStatus.BAD_REQUEST, "Bad Request", String.join("; ", errorMessage), request);
+    }
+    @ExceptionHandler(BookNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBookNotFound(
+            BookNotFoundException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), request);
+    }
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentExceptions(
+            IllegalArgumentException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.BAD_REQUEST, "Invalid Input", ex.getMessage(), request);
+    }
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse> handleRunTimeExceptions(
+            RuntimeException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message,
+                                                       ServerHttpRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                error,
+                message,
+                request.getPath().value()
+        );
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bookmanagement.limit;
+
+import com.example.bookmanagement.dto.ConcurrencyLimitStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cap on concurrent requests that follows their latency, after the gradient limiters in Netflix's
+ * concurrency-limits. Two moving averages of the response time are kept: a short one over roughly the last
+ * {@value #SHORT_WINDOW} requests and a long one over roughly the last {@value #LONG_WINDOW}. While the short
+ * average stays within {@value #TOLERANCE} times the long one, the limit grows by about its square root per
+ * request; once requests slow down beyond that, it shrinks in proportion, to at most half per step. The change is
+ * smoothed so a single slow request barely moves it.
+ * <p>
+ * The gradient only sees relative change, and a slowdown that lasts becomes the new normal. A request slower
+ * than the latency budget therefore also cuts the limit by {@value #BACKOFF_PERCENT}%, AIMD style, whatever the
+ * averages say, so a Mongo that stays slow keeps the limit near its minimum.
+ * <p>
+ * The limit only grows while at least half of it is in use, so an idle period does not leave it far above
+ * what has actually been tried. Thread-safe; acquiring a slot never blocks.
+ */
+public class AdaptiveConcurrencyLimit {
+    static final int SHORT_WINDOW = 10;
+    static final int LONG_WINDOW = 600;
+    static final double TOLERANCE = 1.5;
+    static final int BACKOFF_PERCENT = 10;
+    private static final double SMOOTHING = 0.2;
+
+    private final String route;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyBudgetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimit(String route, int initialLimit, int minLimit, int maxLimit, long latencyBudgetNanos) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Concurrency limits for " + route + " must satisfy 1 <= min <= initial <= max");
+        }
+        this.route = route;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyBudgetNanos = latencyBudgetNanos;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot, or returns false at once, counting a rejection, when all of them are in use.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back and adjusts the limit to how long the request took.
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(Math.max(rttNanos, 1), inFlightBefore);
+    }
+
+    /**
+     * Gives the slot back without a latency sample, for requests whose duration says nothing about load.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public synchronized ConcurrencyLimitStatus status() {
+        return new ConcurrencyLimitStatus(route, getLimit(), getInFlight(), getRejected(),
+                shortRttNanos / TimeUnit.MILLISECONDS.toNanos(1), longRttNanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore) {
+        if (samples++ == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        }
+        // After a long spell of slow requests the long average has risen with them; pull it back down so
+        // recovering latency is recognised instead of taken as the new normal.
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        double current = limit;
+        if (rttNanos > latencyBudgetNanos) {
+            limit = Math.max(minLimit, current * (100 - BACKOFF_PERCENT) / 100);
+            return;
+        }
+        if (inFlightBefore < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
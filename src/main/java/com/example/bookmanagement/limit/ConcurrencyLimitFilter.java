@@ -0,0 +1,177 @@
+package com.example.bookmanagement.limit;
+
+import com.example.bookmanagement.dto.ConcurrencyLimitStatus;
+import com.example.bookmanagement.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load on {@code /api/books} before it reaches the controller. Reads and writes each get an
+ * {@link AdaptiveConcurrencyLimit}, so slow writes cannot starve reads or the other way round. A request over
+ * the limit is answered at once with 503 and {@code Retry-After} rather than waiting for a Tomcat thread, so
+ * when Mongo slows down the requests that are admitted still finish in time.
+ * <p>
+ * Exports and imports are not limited: they run for minutes by design and are paced by their own batching.
+ * A streamed search holds its slot until the stream ends but is not used as a latency sample.
+ * <p>
+ * The limit, requests in flight and rejections per route are published as {@code books.concurrency.*} metrics.
+ * Off when {@code books.limit.enabled} is false.
+ */
+@Component
+@Profile("!reactive")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+    static final String BOOKS_PATH = "/api/books/";
+    private static final List<String> UNLIMITED_PATHS = List.of("/api/books/export", "/api/books/import");
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(
+            @Value("${books.limit.enabled:true}") boolean enabled,
+            @Value("${books.limit.read.initial:100}") int readInitial,
+            @Value("${books.limit.read.min:10}") int readMin,
+            @Value("${books.limit.read.max:200}") int readMax,
+            @Value("${books.limit.write.initial:20}") int writeInitial,
+            @Value("${books.limit.write.min:4}") int writeMin,
+            @Value("${books.limit.write.max:100}") int writeMax,
+            @Value("${books.limit.latency-budget-ms:1000}") long latencyBudgetMillis,
+            @Value("${books.limit.retry-after-seconds:1}") int retryAfterSeconds,
+            ObjectMapper objectMapper
+    ) {
+        this.enabled = enabled;
+        long latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMillis);
+        this.readLimit = new AdaptiveConcurrencyLimit("read", readInitial, readMin, readMax, latencyBudgetNanos);
+        this.writeLimit = new AdaptiveConcurrencyLimit("write", writeInitial, writeMin, writeMax, latencyBudgetNanos);
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        this.objectMapper = objectMapper;
+    }
+
+    public List<ConcurrencyLimitStatus> status() {
+        return List.of(readLimit.status(), writeLimit.status());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdaptiveConcurrencyLimit limit : List.of(readLimit, writeLimit)) {
+            Gauge.builder("books.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Concurrent requests currently admitted")
+                    .tag("route", limit.getRoute())
+                    .register(registry);
+            Gauge.builder("books.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests being served")
+                    .tag("route", limit.getRoute())
+                    .register(registry);
+            FunctionCounter.builder("books.concurrency.rejected", limit, AdaptiveConcurrencyLimit::getRejected)
+                    .description("Requests turned away with 503 because the limit was reached")
+                    .tag("route", limit.getRoute())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !path.startsWith(BOOKS_PATH) || UNLIMITED_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = isRead(request) ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Too many concurrent requests, retry after " + retryAfterSeconds + " s",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    /**
+     * Frees the slot of a streamed response once the stream has ended, whichever way it ended.
+     */
+    private static final class ReleaseOnComplete implements AsyncListener {
+        private final AdaptiveConcurrencyLimit limit;
+        private boolean released;
+
+        private ReleaseOnComplete(AdaptiveConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void onComplete(AsyncEvent event) {
+            if (!released) {
+                released = true;
+                limit.release();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            onComplete(event);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onComplete(event);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bookmanagement.metrics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+/**
+ * Records how many documents each successful Mongo command returned or touched, tagged by command name.
+ * Complements the driver's {@code mongodb.driver.commands} timer, which has latency but not result size.
+ */
+public class MongoDocumentMetricsListener implements CommandListener {
+    public static final String METRIC_NAME = "mongodb.driver.commands.documents";
+
+    private final MeterRegistry registry;
+
+    public MongoDocumentMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        long documents = documentCount(event.getCommandName(), event.getResponse());
+        if (documents < 0) {
+            return;
+        }
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Documents returned or affected per Mongo command")
+                .baseUnit("documents")
+                .tag("command", event.getCommandName())
+                .register(registry)
+                .record(documents);
+    }
+
+    /**
+     * Reads the document count out of a command reply, or -1 for commands that have none.
+     */
+    static long documentCount(String commandName, BsonDocument response) {
+        return switch (commandName) {
+            case "find", "aggregate" -> batchSize(response, "firstBatch");
+            case "getMore" -> batchSize(response, "nextBatch");
+            case "insert", "update", "delete", "count" -> intValue(response.get("n"));
+            case "findAndModify" -> {
+                BsonValue lastError = response.get("lastErrorObject");
+                yield lastError != null && lastError.isDocument() ? intValue(lastError.asDocument().get("n")) : -1;
+            }
+            case "distinct" -> {
+                BsonValue values = response.get("values");
+                yield values != null && values.isArray() ? values.asArray().size() : -1;
+            }
+            default -> -1;
+        };
+    }
+
+    private static long batchSize(BsonDocument response, String batchField) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor == null || !cursor.isDocument()) {
+            return -1;
+        }
+        BsonValue batch = cursor.asDocument().get(batchField);
+        return batch instanceof BsonArray array ? array.size() : -1;
+    }
+
+    private static long intValue(BsonValue value) {
+        return value != null && value.isNumber() ? value.asNumber().longValue() : -1;
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.bookmanagement.metrics;
+
+import com.example.bookmanagement.dto.SlowQuery;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.BsonValueCodec;
+import org.bson.codecs.DecoderContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Watches Mongo commands and records any query slower than {@code books.slow-query.threshold-ms} in the
+ * {@link SlowQueryLog}: the query shape with every literal replaced by {@code ?}, the documents returned and,
+ * from a follow-up {@code explain} in executionStats mode, the documents and keys examined and the winning plan.
+ * The shape tells which of the service's query branches ran; the plan tells which index served it.
+ * <p>
+ * The explain runs on a single background thread so the slow request is not made slower. If that thread
+ * is still busy with earlier explains, the query is recorded without a plan. Each shape is explained at most once
+ * per {@code books.slow-query.explain-interval-ms}; in between, entries reuse that plan, as Mongo's own plan cache
+ * does for queries of the same shape. An explain re-runs the query, so this keeps a burst of slow queries from
+ * doubling the load on a server that is already struggling.
+ * <p>
+ * The driver only lets a command be read while it is being sent, before anyone knows whether it will be slow, so
+ * every explainable command is copied as it starts. The copy stops at {@value #MAX_COPIED_VALUES} values: a larger
+ * command, such as a long {@code $in} list, keeps only its redacted shape, read without decoding its literals, and
+ * is recorded without a plan if it turns out slow.
+ */
+@Component
+public class SlowQueryDetector implements CommandListener, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDetector.class);
+
+    private static final Set<String> EXPLAINABLE_COMMANDS =
+            Set.of("find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+    private static final Set<String> UNREDACTED_FIELDS =
+            Set.of("sort", "projection", "fields", "limit", "skip", "batchSize", "hint", "singleBatch", "new", "upsert");
+    private static final Set<String> SESSION_FIELDS =
+            Set.of("lsid", "txnNumber", "autocommit", "startTransaction", "readConcern", "writeConcern");
+    private static final BsonString REDACTED = new BsonString("?");
+    private static final int MAX_TRACKED_SHAPES = 1000;
+    static final int MAX_COPIED_VALUES = 1000;
+    private static final BsonValueCodec VALUE_CODEC = new BsonValueCodec();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private final SlowQueryLog slowQueryLog;
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final long explainIntervalNanos;
+    private final Map<String, ExplainedShape> explainedShapes = new ConcurrentHashMap<>();
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryDetector(
+            SlowQueryLog slowQueryLog,
+            ObjectProvider<MongoClient> mongoClient,
+            @Value("${books.slow-query.threshold-ms:100}") long thresholdMillis,
+            @Value("${books.slow-query.explain:true}") boolean explain,
+            @Value("${books.slow-query.explain-interval-ms:60000}") long explainIntervalMillis
+    ) {
+        this.slowQueryLog = slowQueryLog;
+        this.mongoClient = mongoClient;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        this.explainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(explainIntervalMillis);
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * The command document is only valid during this callback, so explainable commands are copied until they
+     * complete, or only their shape is kept when they are too large to copy.
+     */
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!EXPLAINABLE_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonDocument copy = copy(command, MAX_COPIED_VALUES);
+        inFlight.put(event.getRequestId(), copy != null
+                ? new StartedCommand(event.getDatabaseName(), copy, null)
+                : new StartedCommand(event.getDatabaseName(), null, shape(command, event.getCommandName())));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedCommand started = inFlight.remove(event.getRequestId());
+        if (started == null || event.getElapsedTime(TimeUnit.NANOSECONDS) < thresholdNanos) {
+            return;
+        }
+        BsonDocument command = started.command();
+        BsonDocument shape = command != null ? shape(command, event.getCommandName()) : started.shape();
+        long returned = MongoDocumentMetricsListener.documentCount(event.getCommandName(), event.getResponse());
+        SlowQuery slowQuery = new SlowQuery(
+                Instant.now(),
+                started.database(),
+                shape.getString(event.getCommandName(), new BsonString("")).getValue(),
+                event.getCommandName(),
+                event.getElapsedTime(TimeUnit.MILLISECONDS),
+                shape.toJson(),
+                returned < 0 ? null : returned);
+
+        if (explain && command == null) {
+            slowQuery.setExplainError("Explain skipped, command has more than " + MAX_COPIED_VALUES + " values");
+            record(slowQuery);
+            return;
+        }
+        ExplainedShape explained = explain ? claimExplain(slowQuery) : null;
+        if (explained == null) {
+            record(slowQuery);
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> {
+                explain(slowQuery, command);
+                explained.plan = slowQuery.getPlan();
+                record(slowQuery);
+            });
+        } catch (RejectedExecutionException ex) {
+            slowQuery.setExplainError("Explain skipped, too many slow queries pending");
+            record(slowQuery);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.remove(event.getRequestId());
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the entry to fill in when this query's shape is due for an explain, or null when it was explained
+     * recently, in which case the query takes that explain's plan.
+     */
+    private ExplainedShape claimExplain(SlowQuery slowQuery) {
+        if (explainedShapes.size() > MAX_TRACKED_SHAPES) {
+            explainedShapes.clear();
+        }
+        long now = System.nanoTime();
+        ExplainedShape previous = explainedShapes.get(slowQuery.getShape());
+        if (previous != null && now - previous.explainedAt < explainIntervalNanos) {
+            slowQuery.setPlan(previous.plan);
+            return null;
+        }
+        ExplainedShape current = new ExplainedShape(now);
+        boolean claimed = previous == null
+                ? explainedShapes.putIfAbsent(slowQuery.getShape(), current) == null
+                : explainedShapes.replace(slowQuery.getShape(), previous, current);
+        return claimed ? current : null;
+    }
+
+    private void record(SlowQuery slowQuery) {
+        slowQueryLog.add(slowQuery);
+        log.warn("Slow {} on {} took {} ms: {} plan={} docsExamined={} returned={}",
+                slowQuery.getCommand(), slowQuery.getCollection(), slowQuery.getDurationMillis(),
+                slowQuery.getShape(), slowQuery.getPlan(), slowQuery.getDocsExamined(), slowQuery.getDocsReturned());
+    }
+
+    private void explain(SlowQuery slowQuery, BsonDocument command) {
+        MongoClient client = mongoClient.getIfAvailable();
+        if (client == null) {
+            slowQuery.setExplainError("No Mongo client available");
+            return;
+        }
+        try {
+            Document explained = client.getDatabase(slowQuery.getDatabase())
+                    .runCommand(new BsonDocument("explain", explainable(command))
+                            .append("verbosity", new BsonString("executionStats")));
+            Document planner = queryPlanner(explained);
+            Document stats = explained.get("executionStats", Document.class);
+            if (planner != null) {
+                slowQuery.setPlan(summarizePlan(planner.get("winningPlan", Document.class)));
+            }
+            if (stats != null) {
+                slowQuery.setDocsExamined(((Number) stats.get("totalDocsExamined")).longValue());
+                slowQuery.setKeysExamined(((Number) stats.get("totalKeysExamined")).longValue());
+            }
+        } catch (RuntimeException ex) {
+            slowQuery.setExplainError(ex.getMessage());
+        }
+    }
+
+    /**
+     * The command with driver and session fields removed, so it can be wrapped in {@code explain}.
+     */
+    static BsonDocument explainable(BsonDocument command) {
+        BsonDocument explainable = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !SESSION_FIELDS.contains(key)) {
+                explainable.append(key, value);
+            }
+        });
+        return explainable;
+    }
+
+    /**
+     * A copy of the command, or null when it holds more than {@code maxValues} values. Reads the command as a stream,
+     * so a command that is too large is not decoded past the limit.
+     */
+    static BsonDocument copy(BsonDocument command, int maxValues) {
+        try (BsonReader reader = command.asBsonReader()) {
+            reader.readBsonType();
+            return (BsonDocument) copyValue(reader, new int[]{maxValues});
+        }
+    }
+
+    private static BsonValue copyValue(BsonReader reader, int[] remaining) {
+        if (--remaining[0] < 0) {
+            return null;
+        }
+        BsonType type = reader.getCurrentBsonType();
+        if (type == BsonType.DOCUMENT) {
+            BsonDocument document = new BsonDocument();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String name = reader.readName();
+                BsonValue value = copyValue(reader, remaining);
+                if (value == null) {
+                    return null;
+                }
+                document.append(name, value);
+            }
+            reader.readEndDocument();
+            return document;
+        }
+        if (type == BsonType.ARRAY) {
+            BsonArray array = new BsonArray();
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                BsonValue value = copyValue(reader, remaining);
+                if (value == null) {
+                    return null;
+                }
+                array.add(value);
+            }
+            reader.readEndArray();
+            return array;
+        }
+        return VALUE_CODEC.decode(reader, DECODER_CONTEXT);
+    }
+
+    /**
+     * The command with driver and session fields removed and every filter, pipeline and update literal redacted,
+     * keeping field names and operators so queries that differ only in their values have the same shape. Literals
+     * are skipped rather than decoded.
+     */
+    static BsonDocument shape(BsonDocument command, String commandName) {
+        BsonDocument shape = new BsonDocument();
+        try (BsonReader reader = command.asBsonReader()) {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String key = reader.readName();
+                if (key.startsWith("$") || SESSION_FIELDS.contains(key)) {
+                    reader.skipValue();
+                } else if (key.equals(commandName) || UNREDACTED_FIELDS.contains(key)) {
+                    shape.append(key, VALUE_CODEC.decode(reader, DECODER_CONTEXT));
+                } else {
+                    shape.append(key, redact(reader));
+                }
+            }
+            reader.readEndDocument();
+        }
+        return shape;
+    }
+
+    private static BsonValue redact(BsonReader reader) {
+        BsonType type = reader.getCurrentBsonType();
+        if (type == BsonType.DOCUMENT) {
+            BsonDocument redacted = new BsonDocument();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String key = reader.readName();
+                redacted.append(key, redact(reader));
+            }
+            reader.readEndDocument();
+            return redacted;
+        }
+        if (type == BsonType.REGULAR_EXPRESSION) {
+            // Keep the flags: a case-insensitive regex cannot use an index bound the way a prefix match can.
+            BsonRegularExpression regex = reader.readRegularExpression();
+            return new BsonString("/?/" + regex.getOptions());
+        }
+        if (type == BsonType.ARRAY) {
+            // An array of statements or pipeline stages keeps each one's shape; any other array is one literal.
+            List<BsonValue> statements = new ArrayList<>();
+            boolean allDocuments = true;
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                if (allDocuments && reader.getCurrentBsonType() == BsonType.DOCUMENT) {
+                    statements.add(redact(reader));
+                } else {
+                    allDocuments = false;
+                    reader.skipValue();
+                }
+            }
+            reader.readEndArray();
+            return allDocuments && !statements.isEmpty() ? new BsonArray(statements) : REDACTED;
+        }
+        reader.skipValue();
+        return REDACTED;
+    }
+
+    private static Document queryPlanner(Document explained) {
+        Document planner = explained.get("queryPlanner", Document.class);
+        if (planner != null) {
+            return planner;
+        }
+        // Aggregations report the plan of their initial $cursor stage.
+        List<?> stages = explained.get("stages", List.class);
+        if (stages != null && !stages.isEmpty() && stages.get(0) instanceof Document first
+                && first.get("$cursor") instanceof Document cursor) {
+            return cursor.get("queryPlanner", Document.class);
+        }
+        return null;
+    }
+
+    /**
+     * Renders a winning plan as nested stages, e.g. {@code PROJECTION_COVERED(IXSCAN[available_title])}.
+     */
+    static String summarizePlan(Document plan) {
+        if (plan == null) {
+            return null;
+        }
+        if (plan.get("queryPlan") instanceof Document queryPlan) {
+            plan = queryPlan;
+        }
+        StringBuilder summary = new StringBuilder(String.valueOf(plan.get("stage")));
+        if (plan.get("indexName") != null) {
+            summary.append('[').append(plan.get("indexName")).append(']');
+        }
+        if (plan.get("inputStage") instanceof Document input) {
+            summary.append('(').append(summarizePlan(input)).append(')');
+        } else if (plan.get("inputStages") instanceof List<?> inputs) {
+            summary.append(inputs.stream()
+                    .filter(Document.class::isInstance)
+                    .map(input -> summarizePlan((Document) input))
+                    .collect(Collectors.joining(", ", "(", ")")));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * A started command with either its copy, or only its shape when it was too large to copy.
+     */
+    private record StartedCommand(String database, BsonDocument command, BsonDocument shape) {
+    }
+
+    private static final class ExplainedShape {
+        private final long explainedAt;
+        private volatile String plan;
+
+        private ExplainedShape(long explainedAt) {
+            this.explainedAt = explainedAt;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bookmanagement.metrics;
+
+import com.example.bookmanagement.dto.SlowQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of the most recent slow queries. Once full, each new entry overwrites the oldest.
+ */
+@Component
+public class SlowQueryLog {
+    private final SlowQuery[] entries;
+    private int next;
+    private int size;
+
+    public SlowQueryLog(@Value("${books.slow-query.capacity:100}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("books.slow-query.capacity must be at least 1");
+        }
+        this.entries = new SlowQuery[capacity];
+    }
+
+    public synchronized void add(SlowQuery query) {
+        entries[next] = query;
+        next = (next + 1) % entries.length;
+        size = Math.min(size + 1, entries.length);
+    }
+
+    /**
+     * The recorded queries, newest first.
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> recent = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            recent.add(entries[Math.floorMod(next - i, entries.length)]);
+        }
+        return recent;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+        size = 0;
+    }
+}
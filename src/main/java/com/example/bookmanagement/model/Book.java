@@ -4,22 +4,32 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "books")
+@CompoundIndexes({
+        @CompoundIndex(name = "available_title", def = "{'available': 1, 'title': 1}"),
+        @CompoundIndex(name = "available_author", def = "{'available': 1, 'author': 1}")
+})
 public class Book {
     @Id
     private String id;
 
     @NotBlank
     @Size(max = 100, message = "Title cannot exceed 100 characters")
+    @TextIndexed(weight = 10)
     private String title;
 
     @NotBlank
     @Size(max = 50, message = "Author cannot exceed 50 charaacters")
+    @TextIndexed(weight = 5)
     private String author;
 
     @Size(max = 300, message = "Description cannot exceed 300 characters")
+    @TextIndexed
     private  String description;
     private boolean available;
 
@@ -67,4 +77,8 @@ public class Book {
     public String getId() {
         return id;
     }
+
+    public void setId(String id) {
+        this.id = id;
+    }
 }
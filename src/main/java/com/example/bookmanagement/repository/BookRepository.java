@@ -1,20 +1,31 @@
 package com.example.bookmanagement.repository;
 
+import com.example.bookmanagement.dto.BookDTO;
 import com.example.bookmanagement.model.Book;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface BookRepository extends MongoRepository<Book, String>{
-    List<Book> findByTitleContainingIgnoreCaseAndAvailable(String title, Boolean available);
+/**
+ * Read queries return {@link BookDTO} projections, so documents are mapped straight into the response type.
+ * Title and author always match as case-insensitive substrings, like {@link BookRepositoryImpl#searchCriteria}
+ * and the in-memory indexes, so a search returns the same books whichever of them answers it.
+ */
+public interface BookRepository extends MongoRepository<Book, String>, BookRepositoryCustom {
+    List<BookDTO> findByTitleContainingIgnoreCaseAndAvailable(String title, Boolean available);
 
-    List<Book> findByAuthorContainingIgnoreCaseAndAvailable(String author, Boolean available);
+    List<BookDTO> findByAuthorContainingIgnoreCaseAndAvailable(String author, Boolean available);
 
-    List<Book> findByTitleAndAuthorContainingIgnoreCaseAndAvailable(String title, String author, Boolean available);
+    List<BookDTO> findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCaseAndAvailable(String title, String author, Boolean available);
 
-    List<Book> findByAvailable(Boolean available);
+    List<BookDTO> findByAvailable(Boolean available);
 
-    List<Book> findByTitleContainingIgnoreCase(String title);
+    List<BookDTO> findByTitleContainingIgnoreCase(String title);
 
-    List<Book> findByAuthorContainingIgnoreCase(String author);
+    List<BookDTO> findByAuthorContainingIgnoreCase(String author);
+
+    List<BookDTO> findByIdIn(Collection<String> ids);
+
+    List<BookDTO> findAllBy();
 }
@@ -0,0 +1,30 @@
+package com.example.bookmanagement.repository;
+
+import com.example.bookmanagement.dto.AuthorCount;
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.model.Book;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface BookRepositoryCustom {
+    List<BookDTO> findPage(String title, String author, Boolean available, String afterId, int limit);
+
+    <T> Stream<T> streamBooks(String title, String author, Boolean available, Class<T> type);
+
+    Stream<BookDTO> streamAfter(String afterId, int batchSize);
+
+    List<BookSearchHit> findByText(String terms, Boolean available, int limit);
+
+    List<String> findTitlesByAvailable(boolean available);
+
+    List<AuthorCount> countBooksByAuthor();
+
+    Map<Integer, String> insertUnordered(List<Book> books);
+
+    Book findAndSet(String id, Map<String, Object> fields);
+
+    Book findAndDelete(String id);
+}
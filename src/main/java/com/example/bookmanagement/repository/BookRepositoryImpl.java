@@ -0,0 +1,189 @@
+package com.example.bookmanagement.repository;
+
+import com.example.bookmanagement.dto.AuthorCount;
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.model.Book;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class BookRepositoryImpl implements BookRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public BookRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Returns up to {@code limit} books with an id greater than {@code afterId}, in id order.
+     * Paging walks the {@code _id} index instead of skipping, so every page costs the same.
+     */
+    @Override
+    public List<BookDTO> findPage(String title, String author, Boolean available, String afterId, int limit) {
+        Query query = new Query(searchCriteria(title, author, available));
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        return mongoTemplate.query(Book.class).as(BookDTO.class).matching(query).all();
+    }
+
+    /**
+     * Streams matching books from a server-side cursor, mapped to {@code type}: {@link Book} for the
+     * entity or a projection such as {@link BookDTO}. The caller must close the stream.
+     */
+    @Override
+    public <T> Stream<T> streamBooks(String title, String author, Boolean available, Class<T> type) {
+        return mongoTemplate.query(Book.class)
+                .as(type)
+                .matching(new Query(searchCriteria(title, author, available)))
+                .stream();
+    }
+
+    /**
+     * Streams every book with an id greater than {@code afterId}, or all books, in id order, fetching
+     * {@code batchSize} documents per round trip. The scan follows the {@code _id} index, so starting
+     * after a checkpoint costs no more than starting at the beginning. The caller must close the stream.
+     */
+    @Override
+    public Stream<BookDTO> streamAfter(String afterId, int batchSize) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(batchSize);
+        return mongoTemplate.query(Book.class).as(BookDTO.class).matching(query).stream();
+    }
+
+    /**
+     * Searches the text index on title, author and description and returns the {@code limit} best matches,
+     * highest text score first. The limit travels with the sort, so the server keeps only the top matches
+     * instead of sorting and returning every book that contains a term.
+     */
+    @Override
+    public List<BookSearchHit> findByText(String terms, Boolean available, int limit) {
+        return mongoTemplate.query(Book.class)
+                .as(BookSearchHit.class)
+                .matching(textQuery(terms, available, limit))
+                .all();
+    }
+
+    /**
+     * Reads only the {@code title} field straight from the driver cursor, without mapping to {@link Book}.
+     * With {@code _id} excluded the {@code available_title} index covers the query, so no documents are fetched.
+     */
+    @Override
+    public List<String> findTitlesByAvailable(boolean available) {
+        List<String> titles = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Book.class))
+                .find(Filters.eq("available", available))
+                .projection(Projections.fields(Projections.include("title"), Projections.excludeId()))
+                .map(document -> document.getString("title"))
+                .into(titles);
+        return titles;
+    }
+
+    /**
+     * Counts all and available books per author in one {@code $group} pass on the server.
+     */
+    @Override
+    public List<AuthorCount> countBooksByAuthor() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("author")
+                        .count().as("books")
+                        .sum(ConditionalOperators.when(Criteria.where("available").is(true)).then(1).otherwise(0))
+                        .as("available"));
+        return mongoTemplate.aggregate(aggregation, Book.class, Document.class)
+                .getMappedResults().stream()
+                .map(document -> new AuthorCount(
+                        document.getString("_id"),
+                        ((Number) document.get("books")).longValue(),
+                        ((Number) document.get("available")).longValue()))
+                .toList();
+    }
+
+    /**
+     * Inserts the books in one unordered bulk write, so a failing document does not stop the others.
+     * Returns the error message for each failed position in {@code books}; empty when all were inserted.
+     */
+    @Override
+    public Map<Integer, String> insertUnordered(List<Book> books) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class)
+                    .insert(books)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException ex) {
+            Map<Integer, String> failures = new HashMap<>();
+            ex.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+            return failures;
+        }
+    }
+
+    /**
+     * Sets the given fields with a single atomic {@code $set} and returns the book as it was before,
+     * or null when no book has the id. Fields that are not given are left untouched.
+     */
+    @Override
+    public Book findAndSet(String id, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Book.class
+        );
+    }
+
+    /**
+     * Deletes the book in one round trip and returns it, or null when no book has the id.
+     */
+    @Override
+    public Book findAndDelete(String id) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Book.class);
+    }
+
+    public static Query textQuery(String terms, Boolean available, int limit) {
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(terms)).sortByScore();
+        if (available != null) {
+            query.addCriteria(Criteria.where("available").is(available));
+        }
+        query.limit(limit);
+        return query;
+    }
+
+    public static Criteria searchCriteria(String title, String author, Boolean available) {
+        Criteria criteria = new Criteria();
+        if (title != null) {
+            criteria.and("title").regex(Pattern.quote(title), "i");
+        }
+        if (author != null) {
+            criteria.and("author").regex(Pattern.quote(author), "i");
+        }
+        if (available != null) {
+            criteria.and("available").is(available);
+        }
+        return criteria;
+    }
+}
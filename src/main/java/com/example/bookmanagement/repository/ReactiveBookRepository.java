@@ -0,0 +1,7 @@
+package com.example.bookmanagement.repository;
+
+import com.example.bookmanagement.model.Book;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveBookRepository extends ReactiveMongoRepository<Book, String>, ReactiveBookRepositoryCustom {
+}
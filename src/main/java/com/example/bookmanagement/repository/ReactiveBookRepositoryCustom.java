@@ -0,0 +1,28 @@
+package com.example.bookmanagement.repository;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.model.Book;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ReactiveBookRepositoryCustom {
+    Flux<BookDTO> findPage(String title, String author, Boolean available, String afterId, int limit);
+
+    <T> Flux<T> streamBooks(String title, String author, Boolean available, Class<T> type);
+
+    Flux<BookDTO> streamAfter(String afterId, int batchSize);
+
+    Flux<BookSearchHit> findByText(String terms, Boolean available, int limit);
+
+    Flux<String> findTitlesByAvailable(boolean available);
+
+    Mono<Map<Integer, String>> insertUnordered(List<Book> books);
+
+    Mono<Book> findAndSet(String id, Map<String, Object> fields);
+
+    Mono<Book> findAndDelete(String id);
+}
@@ -0,0 +1,110 @@
+package com.example.bookmanagement.repository;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.model.Book;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link BookRepositoryImpl}; the queries are the same, only the driver differs.
+ */
+public class ReactiveBookRepositoryImpl implements ReactiveBookRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveBookRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<BookDTO> findPage(String title, String author, Boolean available, String afterId, int limit) {
+        Query query = new Query(BookRepositoryImpl.searchCriteria(title, author, available));
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        return mongoTemplate.query(Book.class).as(BookDTO.class).matching(query).all();
+    }
+
+    /**
+     * Emits matching books as the cursor delivers them; demand from the subscriber drives the batches.
+     */
+    @Override
+    public <T> Flux<T> streamBooks(String title, String author, Boolean available, Class<T> type) {
+        return mongoTemplate.query(Book.class)
+                .as(type)
+                .matching(new Query(BookRepositoryImpl.searchCriteria(title, author, available)))
+                .all();
+    }
+
+    @Override
+    public Flux<BookDTO> streamAfter(String afterId, int batchSize) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(batchSize);
+        return mongoTemplate.query(Book.class).as(BookDTO.class).matching(query).all();
+    }
+
+    @Override
+    public Flux<BookSearchHit> findByText(String terms, Boolean available, int limit) {
+        return mongoTemplate.query(Book.class)
+                .as(BookSearchHit.class)
+                .matching(BookRepositoryImpl.textQuery(terms, available, limit))
+                .all();
+    }
+
+    @Override
+    public Flux<String> findTitlesByAvailable(boolean available) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Book.class))
+                .flatMapMany(collection -> collection
+                        .find(Filters.eq("available", available))
+                        .projection(Projections.fields(Projections.include("title"), Projections.excludeId())))
+                .map(document -> document.getString("title"));
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> insertUnordered(List<Book> books) {
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class)
+                .insert(books)
+                .execute()
+                .<Map<Integer, String>>thenReturn(Map.of())
+                .onErrorResume(MongoBulkWriteException.class, ex -> {
+                    Map<Integer, String> failures = new HashMap<>();
+                    ex.getWriteErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+                    return Mono.just(failures);
+                });
+    }
+
+    @Override
+    public Mono<Book> findAndSet(String id, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Book.class
+        );
+    }
+
+    @Override
+    public Mono<Book> findAndDelete(String id) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Book.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.model.Book;
+
+/**
+ * An in-process index over the books collection, filled once by {@link CatalogIndexBootstrapper}
+ * and kept current from {@link com.example.bookmanagement.event.BookChangedEvent}s afterwards.
+ */
+public interface CatalogIndex {
+    boolean isEnabled();
+
+    void beginLoad();
+
+    void load(Book book);
+
+    void finishLoad();
+
+    /**
+     * Drops a load that could not be completed, leaving the index as if it had never begun, so a later
+     * {@link #beginLoad()} starts afresh.
+     */
+    void abortLoad();
+
+    boolean isReady();
+}
@@ -0,0 +1,137 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.event.CatalogReloadedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Fills every enabled {@link CatalogIndex} from a single pass over the books collection once the
+ * application is up. Indexes that are not ready yet are simply not consulted, so startup does not wait.
+ * <p>
+ * A pass that fails, for instance because Mongo is unreachable, is aborted on every index and retried after
+ * {@code books.catalog-index.retry-initial-ms}, doubling up to {@code books.catalog-index.retry-max-ms},
+ * until one completes.
+ * <p>
+ * An index that reports itself stale with a {@link CatalogIndexStaleEvent} is loaded again the same way, after
+ * any load already running. Every completed load publishes a {@link CatalogReloadedEvent}.
+ */
+@Component
+public class CatalogIndexBootstrapper {
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexBootstrapper.class);
+
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<CatalogIndex> indexes;
+    private final long retryInitialMillis;
+    private final long retryMaxMillis;
+    private final Set<CatalogIndex> pending = new LinkedHashSet<>();
+    private boolean running;
+
+    public CatalogIndexBootstrapper(
+            BookRepository bookRepository,
+            ApplicationEventPublisher eventPublisher,
+            List<CatalogIndex> indexes,
+            @Value("${books.catalog-index.retry-initial-ms:1000}") long retryInitialMillis,
+            @Value("${books.catalog-index.retry-max-ms:60000}") long retryMaxMillis
+    ) {
+        if (retryInitialMillis < 1 || retryMaxMillis < retryInitialMillis) {
+            throw new IllegalArgumentException("books.catalog-index.retry-* must satisfy 1 <= initial <= max");
+        }
+        this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.indexes = indexes.stream().filter(CatalogIndex::isEnabled).toList();
+        this.retryInitialMillis = retryInitialMillis;
+        this.retryMaxMillis = retryMaxMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        request(indexes);
+    }
+
+    @EventListener
+    public void onIndexStale(CatalogIndexStaleEvent event) {
+        if (indexes.contains(event.getIndex())) {
+            log.warn("Reloading stale catalog index {}", event.getIndex().getClass().getSimpleName());
+            request(List.of(event.getIndex()));
+        }
+    }
+
+    private synchronized void request(Collection<CatalogIndex> stale) {
+        pending.addAll(stale);
+        if (running || pending.isEmpty()) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::loadPending, "catalog-index-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void loadPending() {
+        while (true) {
+            List<CatalogIndex> batch;
+            synchronized (this) {
+                if (pending.isEmpty() || Thread.currentThread().isInterrupted()) {
+                    running = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+            loadUntilDone(batch);
+        }
+    }
+
+    void loadUntilDone(List<CatalogIndex> batch) {
+        long delay = retryInitialMillis;
+        while (!loadAll(batch)) {
+            log.warn("Retrying the catalog index load in {} ms", delay);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, retryMaxMillis);
+        }
+    }
+
+    /**
+     * One pass over the collection. Returns false, with every index reset, when it could not be completed.
+     */
+    boolean loadAll(List<CatalogIndex> batch) {
+        long start = System.nanoTime();
+        batch.forEach(CatalogIndex::beginLoad);
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamBooks(null, null, null, Book.class)) {
+            for (Book book : (Iterable<Book>) books::iterator) {
+                batch.forEach(index -> index.load(book));
+                count++;
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not load catalog indexes after {} books, searches will go to Mongo", count, ex);
+            batch.forEach(CatalogIndex::abortLoad);
+            return false;
+        }
+        batch.forEach(CatalogIndex::finishLoad);
+        eventPublisher.publishEvent(new CatalogReloadedEvent());
+        log.info("Loaded {} books into {} catalog indexes in {} ms",
+                count, batch.size(), (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bookmanagement.search;
+
+/**
+ * Published by a {@link CatalogIndex} that could not keep up with a write and stopped answering, asking
+ * {@link CatalogIndexBootstrapper} to load it again.
+ */
+public class CatalogIndexStaleEvent {
+    private final CatalogIndex index;
+
+    public CatalogIndexStaleEvent(CatalogIndex index) {
+        this.index = index;
+    }
+
+    public CatalogIndex getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A copy of the books collection in a memory-mapped {@link ReplicaSegment}, so full-catalog searches and the
+ * available titles are answered in process. The books live in the mapped file rather than on the heap; only
+ * the id-to-slot lookup and the results of each read are Java objects. Searches match the terms against the
+ * lower-cased bytes in the mapping and decode only the books they return.
+ * <p>
+ * A file closed cleanly by the previous run is mapped at startup and served straight away, then replaced by
+ * a fresh copy once {@link CatalogIndexBootstrapper} has reloaded it from Mongo, which picks up writes made
+ * while this instance was down. When the replica cannot keep up with a write it stops answering, reads go to
+ * Mongo as before, and it asks to be loaded again with a {@link CatalogIndexStaleEvent}. Off unless
+ * {@code books.replica.enabled} is set.
+ */
+@Component
+public class CatalogReplica implements CatalogIndex, InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(CatalogReplica.class);
+    static final int MIN_SLOTS = 1024;
+    static final int MIN_HEAP_BYTES = 256 * 1024;
+    private static final int SCRATCH_BYTES = 4 * 1024;
+
+    private final boolean enabled;
+    private final Path file;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<String> changedWhileLoading = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ReplicaSegment live;
+    private ReplicaSegment loading;
+    private volatile boolean ready;
+
+    public CatalogReplica(
+            @Value("${books.replica.enabled:false}") boolean enabled,
+            @Value("${books.replica.file:${java.io.tmpdir}/bookmanagement/catalog.replica}") String file,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            live = ReplicaSegment.open(file);
+            if (live != null) {
+                ready = true;
+                log.info("Mapped catalog replica with {} books from {}", live.size(), file);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not map catalog replica {}, it will be reloaded from Mongo", file, ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            discardLoading();
+            if (live != null) {
+                live.close(true);
+                live = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a new segment next to the served one, which keeps answering until {@link #finishLoad()}.
+     */
+    @Override
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            discardLoading();
+            changedWhileLoading.clear();
+            loading = ReplicaSegment.create(loadingFile(), MIN_SLOTS, MIN_HEAP_BYTES);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not create catalog replica {}, reads go to Mongo", loadingFile(), ex);
+            loading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(Book book) {
+        lock.writeLock().lock();
+        try {
+            // A write that raced with the bootstrap read is newer than what the cursor returned.
+            if (loading != null && !changedWhileLoading.contains(book.getId())) {
+                loading = put(loading, book);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not load catalog replica, reads go to Mongo", ex);
+            discardLoading();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            if (loading == null) {
+                return;
+            }
+            loading.moveTo(file);
+            if (live != null) {
+                live.close(false);
+            }
+            live = loading;
+            loading = null;
+            changedWhileLoading.clear();
+            ready = true;
+        } catch (IOException ex) {
+            log.error("Could not install catalog replica {}, reads go to Mongo", file, ex);
+            discardLoading();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            discardLoading();
+            changedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    @Order(BookChangedEvent.READ_MODEL_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loading != null) {
+                changedWhileLoading.add(event.getId());
+                loading = apply(loading, event);
+            }
+            if (live != null) {
+                live = apply(live, event);
+            }
+            return;
+        } catch (IOException | RuntimeException ex) {
+            // A replica that missed a write would serve stale books, so stop serving it until it is reloaded.
+            log.error("Could not apply write to catalog replica, reads go to Mongo until it is reloaded", ex);
+            ready = false;
+            if (live != null) {
+                live.close(false);
+                live = null;
+            }
+            discardLoading();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        eventPublisher.publishEvent(new CatalogIndexStaleEvent(this));
+    }
+
+    /**
+     * Books whose title and author contain the given terms, ignoring case, in the order they were loaded.
+     * Empty when the replica is not serving.
+     */
+    public Optional<List<BookDTO>> search(String title, String author, Boolean available) {
+        byte[] titleTerm = term(title);
+        byte[] authorTerm = term(author);
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            List<BookDTO> books = new ArrayList<>();
+            byte[] scratch = new byte[SCRATCH_BYTES];
+            for (int slot = live.nextSlot(0, available); slot >= 0; slot = live.nextSlot(slot + 1, available)) {
+                if (matches(slot, titleTerm, authorTerm)) {
+                    books.add(readBook(slot, scratch));
+                }
+            }
+            return Optional.of(Collections.unmodifiableList(books));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The books among {@code ids} whose title and author contain the given terms, ignoring case, in the order of
+     * the ids. Used with the candidates of the {@link TrigramIndex}, so a selective search reads only those books;
+     * each is checked again, so a stale candidate is never returned. Empty when the replica is not serving.
+     */
+    public Optional<List<BookDTO>> search(List<String> ids, String title, String author, Boolean available) {
+        byte[] titleTerm = term(title);
+        byte[] authorTerm = term(author);
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            List<BookDTO> books = new ArrayList<>(ids.size());
+            byte[] scratch = new byte[SCRATCH_BYTES];
+            for (String id : ids) {
+                int slot = live.slot(id);
+                if (slot >= 0 && (available == null || live.isAvailable(slot) == available)
+                        && matches(slot, titleTerm, authorTerm)) {
+                    books.add(readBook(slot, scratch));
+                }
+            }
+            return Optional.of(Collections.unmodifiableList(books));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<List<String>> getAvailableTitles() {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            List<String> titles = new ArrayList<>(live.size());
+            byte[] scratch = new byte[SCRATCH_BYTES];
+            for (int slot = live.nextSlot(0, true); slot >= 0; slot = live.nextSlot(slot + 1, true)) {
+                titles.add(live.read(slot, ReplicaSegment.TITLE, scratch));
+            }
+            return Optional.of(Collections.unmodifiableList(titles));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(int slot, byte[] titleTerm, byte[] authorTerm) {
+        return (titleTerm == null || live.contains(slot, ReplicaSegment.TITLE_KEY, titleTerm))
+                && (authorTerm == null || live.contains(slot, ReplicaSegment.AUTHOR_KEY, authorTerm));
+    }
+
+    private BookDTO readBook(int slot, byte[] scratch) {
+        return new BookDTO(live.read(slot, ReplicaSegment.ID, scratch), live.read(slot, ReplicaSegment.TITLE, scratch),
+                live.read(slot, ReplicaSegment.AUTHOR, scratch), live.read(slot, ReplicaSegment.DESCRIPTION, scratch),
+                live.isAvailable(slot));
+    }
+
+    private static byte[] term(String value) {
+        String normalized = TrigramIndex.normalize(value);
+        return normalized == null ? null : normalized.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ReplicaSegment apply(ReplicaSegment segment, BookChangedEvent event) throws IOException {
+        if (event.getAfter() == null) {
+            segment.remove(event.getId());
+            return segment;
+        }
+        return put(segment, event.getAfter());
+    }
+
+    /**
+     * Writes the book, copying the segment into a larger file first when it is full. The copy leaves out
+     * deleted books and replaced strings, so it is also when the file is compacted.
+     */
+    private static ReplicaSegment put(ReplicaSegment segment, Book book) throws IOException {
+        if (segment.put(book)) {
+            return segment;
+        }
+        long heapBytes = Math.max(2 * segment.liveHeapBytes(), MIN_HEAP_BYTES);
+        long slots = Math.max(2L * (segment.size() + 1), MIN_SLOTS);
+        if (heapBytes > Integer.MAX_VALUE || slots > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Catalog replica would exceed 2 GB");
+        }
+
+        Path target = segment.path();
+        Path grown = target.resolveSibling(target.getFileName() + ".grow");
+        ReplicaSegment larger = ReplicaSegment.create(grown, (int) slots, (int) heapBytes);
+        for (int slot = segment.nextSlot(0, null); slot >= 0; slot = segment.nextSlot(slot + 1, null)) {
+            larger.put(segment.readBook(slot));
+        }
+        if (!larger.put(book)) {
+            throw new IllegalStateException("Book " + book.getId() + " does not fit in the catalog replica");
+        }
+        segment.close(false);
+        larger.moveTo(target);
+        return larger;
+    }
+
+    private void discardLoading() {
+        if (loading == null) {
+            return;
+        }
+        loading.close(false);
+        try {
+            Files.deleteIfExists(loading.path());
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", loading.path(), ex);
+        }
+        loading = null;
+    }
+
+    private Path loadingFile() {
+        return file.resolveSibling(file.getFileName() + ".loading");
+    }
+}
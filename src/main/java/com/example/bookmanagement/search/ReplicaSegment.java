@@ -0,0 +1,339 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.model.Book;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One memory-mapped file holding the catalog column by column:
+ * <pre>
+ * header     magic, version, clean flag, slot capacity, slot count, heap capacity, heap end
+ * live       one bit per slot, set while the slot holds a book
+ * available  one bit per slot
+ * offsets    the id, title, author and description columns, then the lower-cased title and author, one int per
+ *            slot pointing into the heap, -1 for null
+ * heap       the strings, each an int length followed by its UTF-8 bytes
+ * </pre>
+ * Searches compare the lower-cased columns byte by byte in the mapping, so only the books that match are decoded.
+ * A lower-cased column that reads the same as the original points at the original's bytes.
+ * A book keeps its slot for as long as it exists. An update appends the new strings to the heap and repoints the
+ * slot, a delete clears the live bit; the space left behind is reclaimed when the segment is copied into a larger
+ * one. The clean flag is only set while the file is closed, so a file left by a crash is never reopened.
+ * <p>
+ * Not thread-safe, {@link CatalogReplica} guards it.
+ */
+final class ReplicaSegment {
+    static final int ID = 0;
+    static final int TITLE = 1;
+    static final int AUTHOR = 2;
+    static final int DESCRIPTION = 3;
+    static final int TITLE_KEY = 4;
+    static final int AUTHOR_KEY = 5;
+    private static final int COLUMNS = 6;
+
+    private static final int MAGIC = 0x424B5250;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int CLEAN_AT = 8;
+    private static final int SLOT_CAPACITY_AT = 12;
+    private static final int SLOT_COUNT_AT = 16;
+    private static final int HEAP_CAPACITY_AT = 20;
+    private static final int HEAP_END_AT = 24;
+
+    private final MappedByteBuffer buffer;
+    private final int slotCapacity;
+    private final int heapCapacity;
+    private final int liveAt;
+    private final int availableAt;
+    private final int offsetsAt;
+    private final int heapAt;
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private Path path;
+    private int slotCount;
+    private int heapEnd;
+
+    private ReplicaSegment(Path path, MappedByteBuffer buffer, int slotCapacity, int heapCapacity) {
+        this.path = path;
+        this.buffer = buffer;
+        this.slotCapacity = slotCapacity;
+        this.heapCapacity = heapCapacity;
+        int bitsetBytes = bitsetBytes(slotCapacity);
+        this.liveAt = HEADER_BYTES;
+        this.availableAt = liveAt + bitsetBytes;
+        this.offsetsAt = availableAt + bitsetBytes;
+        this.heapAt = offsetsAt + COLUMNS * Integer.BYTES * slotCapacity;
+    }
+
+    static ReplicaSegment create(Path path, int slotCapacity, int heapCapacity) throws IOException {
+        long size = fileSize(slotCapacity, heapCapacity);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Catalog replica would exceed 2 GB");
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ReplicaSegment segment = new ReplicaSegment(path,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, size), slotCapacity, heapCapacity);
+            segment.buffer.putInt(MAGIC_AT, MAGIC);
+            segment.buffer.putInt(VERSION_AT, VERSION);
+            segment.buffer.putInt(SLOT_CAPACITY_AT, slotCapacity);
+            segment.buffer.putInt(HEAP_CAPACITY_AT, heapCapacity);
+            segment.writeCounts();
+            return segment;
+        }
+    }
+
+    /**
+     * Maps a file a previous run closed cleanly, or returns null when there is none or it cannot be trusted.
+     */
+    static ReplicaSegment open(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_BYTES) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int slotCapacity = buffer.getInt(SLOT_CAPACITY_AT);
+            int heapCapacity = buffer.getInt(HEAP_CAPACITY_AT);
+            if (buffer.getInt(MAGIC_AT) != MAGIC || buffer.getInt(VERSION_AT) != VERSION
+                    || buffer.get(CLEAN_AT) != 1 || slotCapacity < 0 || heapCapacity < 0
+                    || fileSize(slotCapacity, heapCapacity) != channel.size()) {
+                return null;
+            }
+            int slotCount = buffer.getInt(SLOT_COUNT_AT);
+            int heapEnd = buffer.getInt(HEAP_END_AT);
+            if (slotCount < 0 || slotCount > slotCapacity || heapEnd < 0 || heapEnd > heapCapacity) {
+                return null;
+            }
+            ReplicaSegment segment = new ReplicaSegment(path, buffer, slotCapacity, heapCapacity);
+            segment.slotCount = slotCount;
+            segment.heapEnd = heapEnd;
+            for (int slot = segment.nextSlot(0, null); slot >= 0; slot = segment.nextSlot(slot + 1, null)) {
+                segment.slotById.put(segment.read(slot, ID), slot);
+            }
+            buffer.put(CLEAN_AT, (byte) 0);
+            return segment;
+        }
+    }
+
+    /**
+     * Writes the book into its existing slot or a new one. Returns false, leaving the segment unchanged,
+     * when there is no room for it.
+     */
+    boolean put(Book book) {
+        byte[][] strings = {utf8(book.getId()), utf8(book.getTitle()), utf8(book.getAuthor()), utf8(book.getDescription()),
+                key(book.getTitle()), key(book.getAuthor())};
+        long needed = 0;
+        for (byte[] string : strings) {
+            needed += string == null ? 0 : Integer.BYTES + string.length;
+        }
+        Integer existing = slotById.get(book.getId());
+        if (heapEnd + needed > heapCapacity || (existing == null && slotCount == slotCapacity)) {
+            return false;
+        }
+
+        int slot = existing != null ? existing : slotCount++;
+        for (int column = 0; column < COLUMNS; column++) {
+            buffer.putInt(offsetAt(slot, column), append(strings[column]));
+        }
+        if (strings[TITLE_KEY] == null) {
+            buffer.putInt(offsetAt(slot, TITLE_KEY), buffer.getInt(offsetAt(slot, TITLE)));
+        }
+        if (strings[AUTHOR_KEY] == null) {
+            buffer.putInt(offsetAt(slot, AUTHOR_KEY), buffer.getInt(offsetAt(slot, AUTHOR)));
+        }
+        setBit(availableAt, slot, book.isAvailable());
+        setBit(liveAt, slot, true);
+        slotById.put(book.getId(), slot);
+        writeCounts();
+        return true;
+    }
+
+    void remove(String id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            setBit(liveAt, slot, false);
+        }
+    }
+
+    int size() {
+        return slotById.size();
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * The first slot at or after {@code from} that holds a book with the given availability, or any book when
+     * {@code available} is null; -1 when there is none. Skips 64 slots at a time through the bitsets.
+     */
+    int nextSlot(int from, Boolean available) {
+        if (from >= slotCount) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = word(word, available) & (-1L << (from & 63));
+        while (bits == 0) {
+            if (++word << 6 >= slotCount) {
+                return -1;
+            }
+            bits = word(word, available);
+        }
+        int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+        return slot < slotCount ? slot : -1;
+    }
+
+    /**
+     * The slot of the book, or -1 when it is not in the segment.
+     */
+    int slot(String id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    String read(int slot, int column) {
+        return read(slot, column, null);
+    }
+
+    /**
+     * Reads the string through {@code scratch} when it fits, so decoding it allocates only the string itself.
+     */
+    String read(int slot, int column, byte[] scratch) {
+        int offset = buffer.getInt(offsetAt(slot, column));
+        if (offset < 0) {
+            return null;
+        }
+        int length = buffer.getInt(heapAt + offset);
+        byte[] bytes = scratch != null && scratch.length >= length ? scratch : new byte[length];
+        buffer.get(heapAt + offset + Integer.BYTES, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the string in the column contains {@code term}, compared as UTF-8 bytes without decoding it.
+     * False when the string is null.
+     */
+    boolean contains(int slot, int column, byte[] term) {
+        int offset = buffer.getInt(offsetAt(slot, column));
+        if (offset < 0) {
+            return false;
+        }
+        int start = heapAt + offset + Integer.BYTES;
+        int last = start + buffer.getInt(heapAt + offset) - term.length;
+        for (int at = start; at <= last; at++) {
+            int i = 0;
+            while (i < term.length && buffer.get(at + i) == term[i]) {
+                i++;
+            }
+            if (i == term.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isAvailable(int slot) {
+        return (buffer.getLong(availableAt + (slot >>> 6) * Long.BYTES) & (1L << (slot & 63))) != 0;
+    }
+
+    Book readBook(int slot) {
+        Book book = new Book(read(slot, TITLE), read(slot, AUTHOR), read(slot, DESCRIPTION), isAvailable(slot));
+        book.setId(read(slot, ID));
+        return book;
+    }
+
+    /**
+     * Heap bytes used by the books still present, i.e. what a copy of this segment needs.
+     */
+    long liveHeapBytes() {
+        long bytes = 0;
+        for (int slot = nextSlot(0, null); slot >= 0; slot = nextSlot(slot + 1, null)) {
+            // Counts a lower-cased column that shares its original's bytes twice, which only overestimates.
+            for (int column = 0; column < COLUMNS; column++) {
+                int offset = buffer.getInt(offsetAt(slot, column));
+                bytes += offset < 0 ? 0 : Integer.BYTES + buffer.getInt(heapAt + offset);
+            }
+        }
+        return bytes;
+    }
+
+    void moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        path = target;
+    }
+
+    /**
+     * Flushes the mapping. A clean close marks the file for reopening on the next start. The mapping itself is
+     * released when the buffer is garbage collected.
+     */
+    void close(boolean clean) {
+        buffer.put(CLEAN_AT, (byte) (clean ? 1 : 0));
+        buffer.force();
+    }
+
+    private int append(byte[] string) {
+        if (string == null) {
+            return -1;
+        }
+        int offset = heapEnd;
+        buffer.putInt(heapAt + offset, string.length);
+        buffer.put(heapAt + offset + Integer.BYTES, string);
+        heapEnd += Integer.BYTES + string.length;
+        return offset;
+    }
+
+    private long word(int index, Boolean available) {
+        long live = buffer.getLong(liveAt + index * Long.BYTES);
+        if (available == null) {
+            return live;
+        }
+        long availableBits = buffer.getLong(availableAt + index * Long.BYTES);
+        return available ? live & availableBits : live & ~availableBits;
+    }
+
+    private void setBit(int bitsetAt, int slot, boolean value) {
+        int at = bitsetAt + (slot >>> 6) * Long.BYTES;
+        long mask = 1L << (slot & 63);
+        buffer.putLong(at, value ? buffer.getLong(at) | mask : buffer.getLong(at) & ~mask);
+    }
+
+    private int offsetAt(int slot, int column) {
+        return offsetsAt + (column * slotCapacity + slot) * Integer.BYTES;
+    }
+
+    private void writeCounts() {
+        buffer.putInt(SLOT_COUNT_AT, slotCount);
+        buffer.putInt(HEAP_END_AT, heapEnd);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The lower-cased bytes searches compare against, or null when they are the same as the original's.
+     */
+    private static byte[] key(String value) {
+        String normalized = TrigramIndex.normalize(value);
+        return normalized == null || normalized.equals(value) ? null : utf8(normalized);
+    }
+
+    private static int bitsetBytes(int slotCapacity) {
+        return ((slotCapacity + 63) / 64) * Long.BYTES;
+    }
+
+    private static long fileSize(int slotCapacity, int heapCapacity) {
+        return HEADER_BYTES + 2L * bitsetBytes(slotCapacity) + (long) COLUMNS * Integer.BYTES * slotCapacity + heapCapacity;
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.dto.BookSuggestions;
+import com.example.bookmanagement.dto.Suggestion;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Completions for the titles and authors of all books, for type-ahead. Each value is entered in a radix trie
+ * under every word it contains, so "code" completes to "Clean Code" as well as "Code Complete". Completions
+ * are ranked by how many books have them, which for authors is the number of books they wrote.
+ * <p>
+ * Every trie node caches its best {@link #MAX_SUGGESTIONS} completions, built from its children's on first use.
+ * A write clears the caches on the paths of the words it touched, so a lookup walks the prefix and usually
+ * returns a cached list.
+ */
+@Component
+public class SuggestionIndex implements CatalogIndex {
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::books).reversed()
+            .thenComparing(Suggestion::text, String.CASE_INSENSITIVE_ORDER);
+
+    private final boolean enabled;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Trie titles = new Trie();
+    private final Trie authors = new Trie();
+    private final Set<String> changedWhileLoading = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public SuggestionIndex(@Value("${books.suggest.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            titles.clear();
+            authors.clear();
+            changedWhileLoading.clear();
+            loading = true;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(Book book) {
+        lock.writeLock().lock();
+        try {
+            // A write that raced with the bootstrap read is newer than what the cursor returned.
+            if (!changedWhileLoading.contains(book.getId())) {
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading.clear();
+            loading = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            titles.clear();
+            authors.clear();
+            changedWhileLoading.clear();
+            loading = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    @Order(BookChangedEvent.READ_MODEL_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // With no load under way and none finished there is nothing to keep current.
+            if (!loading && !ready) {
+                return;
+            }
+            if (loading) {
+                changedWhileLoading.add(event.getId());
+            }
+            remove(event.getId());
+            if (event.getAfter() != null) {
+                add(event.getAfter());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The best {@code limit} titles and authors with a word starting with {@code prefix}, ignoring case.
+     * Both lists are empty until the index has loaded; {@link #isReady()} tells the two apart.
+     */
+    public BookSuggestions suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix cannot be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (!ready) {
+            return new BookSuggestions(List.of(), List.of());
+        }
+        String key = TrigramIndex.normalize(prefix.strip());
+        lock.readLock().lock();
+        try {
+            return new BookSuggestions(titles.complete(key, limit), authors.complete(key, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Book book) {
+        Entry entry = new Entry(book.getTitle(), book.getAuthor());
+        entries.put(book.getId(), entry);
+        titles.add(entry.title());
+        authors.add(entry.author());
+    }
+
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            titles.remove(entry.title());
+            authors.remove(entry.author());
+        }
+    }
+
+    /**
+     * Start offsets of the words in a normalized value: letters or digits after anything else.
+     */
+    static List<Integer> wordStarts(String value) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isLetterOrDigit(value.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(value.charAt(i - 1)))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private record Entry(String title, String author) {
+    }
+
+    /**
+     * A radix trie keyed by the normalized suffix of a value from each of its words. The node where a key ends
+     * counts, per whole value, the books that have it.
+     */
+    private static final class Trie {
+        private final Node root = new Node("");
+
+        void clear() {
+            root.children = null;
+            root.counts = null;
+            root.top = null;
+        }
+
+        void add(String value) {
+            if (value == null) {
+                return;
+            }
+            String normalized = TrigramIndex.normalize(value);
+            for (int start : wordStarts(normalized)) {
+                Node node = insert(normalized.substring(start));
+                if (node.counts == null) {
+                    node.counts = new HashMap<>();
+                }
+                node.counts.computeIfAbsent(normalized, key -> new Count(value)).books++;
+            }
+        }
+
+        void remove(String value) {
+            if (value == null) {
+                return;
+            }
+            String normalized = TrigramIndex.normalize(value);
+            for (int start : wordStarts(normalized)) {
+                List<Node> path = find(normalized.substring(start));
+                if (path == null) {
+                    continue;
+                }
+                Node node = path.get(path.size() - 1);
+                Count count = node.counts == null ? null : node.counts.get(normalized);
+                if (count != null && --count.books == 0) {
+                    node.counts.remove(normalized);
+                }
+                path.forEach(visited -> visited.top = null);
+                prune(path);
+            }
+        }
+
+        List<Suggestion> complete(String prefix, int limit) {
+            Node node = root;
+            int matched = 0;
+            while (matched < prefix.length()) {
+                node = node.child(prefix.charAt(matched));
+                if (node == null) {
+                    return List.of();
+                }
+                int length = Math.min(node.edge.length(), prefix.length() - matched);
+                if (!node.edge.regionMatches(0, prefix, matched, length)) {
+                    return List.of();
+                }
+                matched += length;
+            }
+            List<Suggestion> top = node.top();
+            return top.size() > limit ? top.subList(0, limit) : top;
+        }
+
+        /**
+         * Walks to the node for {@code key}, splitting an edge where the key leaves it, and clears the
+         * cached completions along the way.
+         */
+        private Node insert(String key) {
+            Node node = root;
+            node.top = null;
+            int matched = 0;
+            while (matched < key.length()) {
+                Node child = node.child(key.charAt(matched));
+                if (child == null) {
+                    child = new Node(key.substring(matched));
+                    node.addChild(child);
+                    return child;
+                }
+                int common = 1;
+                while (common < child.edge.length() && matched + common < key.length()
+                        && child.edge.charAt(common) == key.charAt(matched + common)) {
+                    common++;
+                }
+                if (common < child.edge.length()) {
+                    Node split = new Node(child.edge.substring(0, common));
+                    child.edge = child.edge.substring(common);
+                    node.replaceChild(split);
+                    split.addChild(child);
+                    child = split;
+                }
+                child.top = null;
+                node = child;
+                matched += common;
+            }
+            return node;
+        }
+
+        private List<Node> find(String key) {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            int matched = 0;
+            while (matched < key.length()) {
+                node = node.child(key.charAt(matched));
+                if (node == null || !key.startsWith(node.edge, matched)) {
+                    return null;
+                }
+                path.add(node);
+                matched += node.edge.length();
+            }
+            return path;
+        }
+
+        /**
+         * Drops nodes left without completions or children, from the end of the path up.
+         */
+        private static void prune(List<Node> path) {
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                if ((node.counts != null && !node.counts.isEmpty()) || (node.children != null && !node.children.isEmpty())) {
+                    return;
+                }
+                path.get(i - 1).children.remove(node.edge.charAt(0));
+            }
+        }
+    }
+
+    private static final class Node {
+        private String edge;
+        private Map<Character, Node> children;
+        private Map<String, Count> counts;
+        // Filled by concurrent readers under the read lock; every reader computes the same list.
+        private volatile List<Suggestion> top;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        Node child(char first) {
+            return children == null ? null : children.get(first);
+        }
+
+        void addChild(Node child) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            children.put(child.edge.charAt(0), child);
+        }
+
+        void replaceChild(Node child) {
+            children.put(child.edge.charAt(0), child);
+        }
+
+        List<Suggestion> top() {
+            List<Suggestion> cached = top;
+            if (cached != null) {
+                return cached;
+            }
+            List<Suggestion> candidates = new ArrayList<>();
+            if (counts != null) {
+                counts.values().forEach(count -> candidates.add(new Suggestion(count.value, count.books)));
+            }
+            if (children != null) {
+                children.values().forEach(child -> candidates.addAll(child.top()));
+            }
+            candidates.sort(RANKING);
+
+            // A value with two words under this prefix arrives once from each.
+            Set<String> seen = new HashSet<>();
+            List<Suggestion> best = new ArrayList<>(Math.min(candidates.size(), MAX_SUGGESTIONS));
+            for (Suggestion candidate : candidates) {
+                if (best.size() == MAX_SUGGESTIONS) {
+                    break;
+                }
+                if (seen.add(TrigramIndex.normalize(candidate.text()))) {
+                    best.add(candidate);
+                }
+            }
+            cached = List.copyOf(best);
+            top = cached;
+            return cached;
+        }
+    }
+
+    private static final class Count {
+        private final String value;
+        private int books;
+
+        private Count(String value) {
+            this.value = value;
+        }
+    }
+}
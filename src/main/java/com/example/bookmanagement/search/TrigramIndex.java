@@ -0,0 +1,228 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram posting lists over the lower-cased title and author of every book.
+ * A case-insensitive substring search intersects the postings of the search term's trigrams and
+ * only checks the books in the intersection, instead of running an unanchored regex over the collection.
+ */
+@Component
+public class TrigramIndex implements CatalogIndex {
+    static final int GRAM = 3;
+
+    private final boolean enabled;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> titlePostings = new HashMap<>();
+    private final Map<String, Set<String>> authorPostings = new HashMap<>();
+    private final Set<String> changedWhileLoading = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public TrigramIndex(@Value("${books.search.trigram.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            titlePostings.clear();
+            authorPostings.clear();
+            changedWhileLoading.clear();
+            loading = true;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(Book book) {
+        lock.writeLock().lock();
+        try {
+            // A write that raced with the bootstrap read is newer than what the cursor returned.
+            if (!changedWhileLoading.contains(book.getId())) {
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading.clear();
+            loading = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            titlePostings.clear();
+            authorPostings.clear();
+            changedWhileLoading.clear();
+            loading = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    @Order(BookChangedEvent.READ_MODEL_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // With no load under way and none finished there is nothing to keep current.
+            if (!loading && !ready) {
+                return;
+            }
+            if (loading) {
+                changedWhileLoading.add(event.getId());
+            }
+            remove(event.getId());
+            if (event.getAfter() != null) {
+                add(event.getAfter());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the books whose title and author contain the given terms, ignoring case.
+     * Empty when neither term is long enough to have a trigram, in which case the index cannot help.
+     */
+    public Optional<List<String>> search(String title, String author, Boolean available) {
+        String normalizedTitle = normalize(title);
+        String normalizedAuthor = normalize(author);
+
+        List<Set<String>> postings = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            boolean indexed = collectPostings(normalizedTitle, titlePostings, postings)
+                    | collectPostings(normalizedAuthor, authorPostings, postings);
+            if (!indexed) {
+                return Optional.empty();
+            }
+            if (postings.stream().anyMatch(Set::isEmpty)) {
+                return Optional.of(List.of());
+            }
+
+            postings.sort(Comparator.comparingInt(Set::size));
+            List<String> ids = new ArrayList<>();
+            for (String id : postings.get(0)) {
+                if (postings.stream().skip(1).allMatch(posting -> posting.contains(id))
+                        && entries.get(id).matches(normalizedTitle, normalizedAuthor, available)) {
+                    ids.add(id);
+                }
+            }
+            ids.sort(null);
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static boolean collectPostings(String term, Map<String, Set<String>> index, List<Set<String>> postings) {
+        if (term == null || term.length() < GRAM) {
+            return false;
+        }
+        for (String gram : trigrams(term)) {
+            postings.add(index.getOrDefault(gram, Set.of()));
+        }
+        return true;
+    }
+
+    private void add(Book book) {
+        Entry entry = new Entry(normalize(book.getTitle()), normalize(book.getAuthor()), book.isAvailable());
+        entries.put(book.getId(), entry);
+        addPostings(book.getId(), entry.title(), titlePostings);
+        addPostings(book.getId(), entry.author(), authorPostings);
+    }
+
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            removePostings(id, entry.title(), titlePostings);
+            removePostings(id, entry.author(), authorPostings);
+        }
+    }
+
+    private static void addPostings(String id, String value, Map<String, Set<String>> index) {
+        if (value != null) {
+            trigrams(value).forEach(gram -> index.computeIfAbsent(gram, key -> new HashSet<>()).add(id));
+        }
+    }
+
+    private static void removePostings(String id, String value, Map<String, Set<String>> index) {
+        if (value != null) {
+            trigrams(value).forEach(gram -> {
+                Set<String> posting = index.get(gram);
+                if (posting != null && posting.remove(id) && posting.isEmpty()) {
+                    index.remove(gram);
+                }
+            });
+        }
+    }
+
+    private record Entry(String title, String author, boolean available) {
+        boolean matches(String titleTerm, String authorTerm, Boolean availableTerm) {
+            return (titleTerm == null || (title != null && title.contains(titleTerm)))
+                    && (authorTerm == null || (author != null && author.contains(authorTerm)))
+                    && (availableTerm == null || available == availableTerm);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bookmanagement.service;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BulkCreateResult;
+
+import java.util.Iterator;
+
+public interface BookBulkService {
+    BulkCreateResult createBooks(Iterator<BookDTO> books);
+}
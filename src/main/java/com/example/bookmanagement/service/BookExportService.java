@@ -0,0 +1,21 @@
+package com.example.bookmanagement.service;
+
+import com.example.bookmanagement.dto.BookFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+    /**
+     * Checks the request and returns the export, which reads the catalog only once it is written.
+     */
+    BookExport export(BookFormat format, String afterId);
+
+    @FunctionalInterface
+    interface BookExport {
+        /**
+         * Writes the books and returns how many were written.
+         */
+        long writeTo(OutputStream out) throws IOException;
+    }
+}
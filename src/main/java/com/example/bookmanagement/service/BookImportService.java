@@ -0,0 +1,11 @@
+package com.example.bookmanagement.service;
+
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.ImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BookImportService {
+    ImportResult importBooks(InputStream in, BookFormat format) throws IOException;
+}
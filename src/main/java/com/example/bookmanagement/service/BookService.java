@@ -1,13 +1,19 @@
 package com.example.bookmanagement.service;
 
 import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
 import com.example.bookmanagement.dto.PartialDTO;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookService {
     String createBook(BookDTO bookDTO);
     List<BookDTO> searchBooks(String title, String author, Boolean available);
+    BookPage searchBooks(String title, String author, Boolean available, String cursor, int limit);
+    Stream<BookDTO> streamBooks(String title, String author, Boolean available);
+    List<BookSearchHit> searchText(String terms, Boolean available, int limit);
     List<String> getAvailableBookTitles();
     String updateBook(String id, PartialDTO updates);
     String deleteBook(String id);
@@ -0,0 +1,22 @@
+package com.example.bookmanagement.service;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.PartialDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+    Mono<String> createBook(BookDTO bookDTO);
+    Mono<BulkCreateResult> createBooks(Flux<BookDTO> books);
+    Flux<BookDTO> searchBooks(String title, String author, Boolean available);
+    Mono<BookPage> searchBooks(String title, String author, Boolean available, String cursor, int limit);
+    Flux<BookDTO> exportBooks(String afterId);
+    Flux<String> exportCsv(String afterId);
+    Flux<BookSearchHit> searchText(String terms, Boolean available, int limit);
+    Flux<String> getAvailableBookTitles();
+    Mono<String> updateBook(String id, PartialDTO updates);
+    Mono<String> deleteBook(String id);
+}
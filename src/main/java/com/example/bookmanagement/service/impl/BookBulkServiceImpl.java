@@ -0,0 +1,117 @@
+package com.example.bookmanagement.service.impl;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.BulkItemResult;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.service.BookBulkService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookBulkServiceImpl implements BookBulkService {
+    private final BookRepository bookRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BookBulkServiceImpl(BookRepository bookRepository, Validator validator,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${books.bulk.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("books.bulk.chunk-size must be positive");
+        }
+        this.bookRepository = bookRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validates each book and inserts the valid ones in unordered chunks of {@code books.bulk.chunk-size}.
+     * Ids are assigned before the insert so every item can be reported, and one bad row never stops the rest.
+     */
+    @Override
+    public BulkCreateResult createBooks(Iterator<BookDTO> books) {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Book> chunk = new ArrayList<>(chunkSize);
+        List<BulkItemResult> chunkResults = new ArrayList<>(chunkSize);
+
+        int index = 0;
+        while (books.hasNext()) {
+            BookDTO bookDTO = books.next();
+            String error = validate(validator, bookDTO);
+            if (error != null) {
+                results.add(BulkItemResult.failed(index, error));
+            } else {
+                Book book = toBookWithId(bookDTO);
+                BulkItemResult result = BulkItemResult.created(index, book.getId());
+                chunk.add(book);
+                chunkResults.add(result);
+                results.add(result);
+            }
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, chunkResults);
+            }
+        }
+        insertChunk(chunk, chunkResults);
+
+        return new BulkCreateResult(results);
+    }
+
+    private void insertChunk(List<Book> chunk, List<BulkItemResult> chunkResults) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failures = bookRepository.insertUnordered(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            String failure = failures.get(i);
+            if (failure != null) {
+                chunkResults.get(i).setId(null);
+                chunkResults.get(i).setError(failure);
+            } else {
+                eventPublisher.publishEvent(BookChangedEvent.created(chunk.get(i)));
+            }
+        }
+        chunk.clear();
+        chunkResults.clear();
+    }
+
+    /**
+     * The Bean Validation messages for the book joined into one line, or null when it is valid.
+     */
+    static String validate(Validator validator, BookDTO bookDTO) {
+        if (bookDTO == null) {
+            return "No book data provided";
+        }
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(bookDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    static Book toBookWithId(BookDTO bookDTO) {
+        Book book = BookMapper.toBook(bookDTO);
+        book.setId(new ObjectId().toHexString());
+        return book;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.bookmanagement.service.impl;
+
+import com.example.bookmanagement.dto.BookDTO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Books as RFC 4180 CSV: a header row, then one row per book with its id, title, author, description and
+ * availability. A field holding a comma, quote or line break is quoted, with its quotes doubled; a missing
+ * description is an empty field.
+ * <p>
+ * Reading accepts the columns in any order, and any subset that includes the title and author, so files
+ * written by other tools load as long as their header uses these names.
+ */
+public final class BookCsvCodec {
+    public static final String HEADER = "id,title,author,description,available";
+    public static final String LINE_END = "\r\n";
+
+    private static final List<String> COLUMNS = List.of("id", "title", "author", "description", "available");
+
+    private BookCsvCodec() {
+    }
+
+    public static void write(BookDTO book, Appendable out) throws IOException {
+        field(book.id(), out);
+        out.append(',');
+        field(book.title(), out);
+        out.append(',');
+        field(book.author(), out);
+        out.append(',');
+        field(book.description(), out);
+        out.append(',').append(Boolean.toString(book.available())).append(LINE_END);
+    }
+
+    public static String row(BookDTO book) {
+        StringBuilder row = new StringBuilder(128);
+        try {
+            write(book, row);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return row.toString();
+    }
+
+    private static void field(String value, Appendable out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    /**
+     * The column names of a header record, lower-cased. Rejects unknown or repeated columns and a header
+     * without a title or author, since no row could be valid.
+     */
+    public static List<String> columns(List<String> header) {
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            String column = name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + name);
+            }
+            if (columns.contains(column)) {
+                throw new IllegalArgumentException("Repeated CSV column: " + name);
+            }
+            columns.add(column);
+        }
+        if (!columns.contains("title") || !columns.contains("author")) {
+            throw new IllegalArgumentException("CSV header must name the title and author columns");
+        }
+        return columns;
+    }
+
+    /**
+     * The book in one record, with fields in the order of {@code columns}. The id column is ignored like the
+     * id of any new book, and a missing availability means not available.
+     */
+    public static BookDTO read(List<String> columns, List<String> fields) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " fields but found " + fields.size());
+        }
+        String title = null;
+        String author = null;
+        String description = null;
+        boolean available = false;
+        for (int i = 0; i < columns.size(); i++) {
+            String value = fields.get(i);
+            switch (columns.get(i)) {
+                case "title" -> title = value;
+                case "author" -> author = value;
+                case "description" -> description = value;
+                case "available" -> available = available(value);
+                default -> {
+                }
+            }
+        }
+        return new BookDTO(title, author, description, available);
+    }
+
+    private static boolean available(String value) {
+        if (value == null || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new IllegalArgumentException("available must be true or false");
+    }
+
+    /**
+     * Reads records one at a time, so a file of any size is parsed in a fixed amount of memory. Lines end
+     * with CRLF or LF; a quoted field may span lines. An unquoted empty field reads as null, and blank lines
+     * are skipped.
+     * <p>
+     * A field is kept to {@value #MAX_FIELD_LENGTH} characters and a record to {@value #MAX_FIELDS} fields,
+     * far beyond any valid book; a record over either limit is read to its end and rejected, and a quote left
+     * open is read to the end of the input without being buffered.
+     */
+    public static final class RecordReader {
+        static final int MAX_FIELD_LENGTH = 8 * 1024;
+        static final int MAX_FIELDS = 64;
+
+        private final Reader in;
+        private final char[] buffer = new char[64 * 1024];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private String overflow;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * The fields of the next record, or null at the end of the input. Throws
+         * {@link IllegalArgumentException} for a record that cannot be parsed; the next call goes on after it.
+         */
+        public List<String> next() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>(COLUMNS.size());
+            overflow = null;
+            while (true) {
+                field.setLength(0);
+                boolean quoted = c == '"';
+                if (quoted) {
+                    c = readQuoted();
+                } else {
+                    while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                        append(c);
+                        c = read();
+                    }
+                }
+                if (fields.size() < MAX_FIELDS) {
+                    fields.add(quoted || field.length() > 0 ? field.toString() : null);
+                } else if (overflow == null) {
+                    overflow = "Record has more than " + MAX_FIELDS + " fields";
+                }
+
+                if (c == ',') {
+                    c = read();
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    if (overflow != null) {
+                        throw new IllegalArgumentException(overflow);
+                    }
+                    return fields;
+                } else {
+                    skipRecord(c);
+                    throw new IllegalArgumentException("Unexpected character after quoted field " + fields.size());
+                }
+            }
+        }
+
+        /**
+         * Reads a quoted field after its opening quote, and returns the character after the closing one.
+         */
+        private int readQuoted() throws IOException {
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    throw new IllegalArgumentException("Quoted field is not closed before the end of the input");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        return c;
+                    }
+                }
+                append(c);
+            }
+        }
+
+        private void append(int c) {
+            if (field.length() < MAX_FIELD_LENGTH) {
+                field.append((char) c);
+            } else if (overflow == null) {
+                overflow = "Field is longer than " + MAX_FIELD_LENGTH + " characters";
+            }
+        }
+
+        private void skipRecord(int c) throws IOException {
+            while (c != '\n' && c != -1) {
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bookmanagement.service.impl;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.service.BookExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class BookExportServiceImpl implements BookExportService {
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public BookExportServiceImpl(BookRepository bookRepository, ObjectMapper objectMapper,
+                                 @Value("${books.export.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("books.export.batch-size must be positive");
+        }
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Exports the books with an id greater than {@code afterId}, or all books, in id order from a single cursor
+     * that fetches {@code books.export.batch-size} documents per round trip. Each batch is flushed to the client
+     * once it is encoded, so memory use does not grow with the catalog. A client that loses the connection
+     * continues by passing the id of the last book it received. The stream is flushed but left open, so the
+     * caller can still finish the response, with a trailer for instance.
+     */
+    @Override
+    public BookExport export(BookFormat format, String afterId) {
+        BookMapper.checkCheckpoint(afterId);
+        return out -> {
+            try (Stream<BookDTO> books = bookRepository.streamAfter(afterId, batchSize)) {
+                return format == BookFormat.CSV ? writeCsv(books.iterator(), out) : writeNdjson(books.iterator(), out);
+            }
+        };
+    }
+
+    private long writeNdjson(Iterator<BookDTO> books, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (books.hasNext()) {
+                writer.writeValue(generator, books.next());
+                generator.writeRaw('\n');
+                if (++count % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<BookDTO> books, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(BookCsvCodec.HEADER);
+        writer.write(BookCsvCodec.LINE_END);
+        while (books.hasNext()) {
+            BookCsvCodec.write(books.next(), writer);
+            if (++count % batchSize == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.bookmanagement.service.impl;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.BulkItemResult;
+import com.example.bookmanagement.dto.ImportResult;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.service.BookImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Loads files of books too large for {@code /bulk}. The calling thread only splits the input into records;
+ * chunks of {@code books.import.chunk-size} records are decoded and validated on one thread per core, then
+ * written with unordered bulk inserts by {@code books.import.writers} threads. At most
+ * {@code books.import.queue-capacity} chunks are in flight at once, so when Mongo falls behind the reader
+ * stops pulling input and memory stays bounded.
+ * <p>
+ * Rows are numbered from 0 in input order, not counting the CSV header or blank lines. A row that cannot be
+ * parsed, fails validation or is refused by Mongo is rejected on its own; anything else stops the import.
+ */
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final Logger log = LoggerFactory.getLogger(BookImportServiceImpl.class);
+    static final int MAX_REPORTED_REJECTIONS = 100;
+    private static final long PROGRESS_EVERY = 100_000;
+
+    private final BookRepository bookRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader bookReader;
+    private final int chunkSize;
+    private final int validators;
+    private final int writers;
+    private final int queueCapacity;
+
+    public BookImportServiceImpl(BookRepository bookRepository, Validator validator,
+                                 ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                                 @Value("${books.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${books.import.validators:0}") int validators,
+                                 @Value("${books.import.writers:4}") int writers,
+                                 @Value("${books.import.queue-capacity:16}") int queueCapacity) {
+        if (chunkSize < 1 || validators < 0 || writers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("books.import.* sizes must be positive");
+        }
+        this.bookRepository = bookRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.bookReader = objectMapper.readerFor(BookDTO.class);
+        this.chunkSize = chunkSize;
+        this.validators = validators == 0 ? Runtime.getRuntime().availableProcessors() : validators;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public ImportResult importBooks(InputStream in, BookFormat format) throws IOException {
+        InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        if (format == BookFormat.CSV) {
+            BookCsvCodec.RecordReader records = new BookCsvCodec.RecordReader(reader);
+            List<String> header = records.next();
+            if (header == null) {
+                return run(() -> null, fields -> null);
+            }
+            List<String> columns = BookCsvCodec.columns(header);
+            return run(records::next, fields -> BookCsvCodec.read(columns, fields));
+        }
+        BufferedReader lines = new BufferedReader(reader, 64 * 1024);
+        return run(() -> nextLine(lines), this::readJson);
+    }
+
+    private <T> ImportResult run(RecordSource<T> source, Function<T, BookDTO> decoder) throws IOException {
+        Progress progress = new Progress();
+        Semaphore inFlight = new Semaphore(queueCapacity);
+        ExecutorService validation = Executors.newFixedThreadPool(validators, threads("book-import-validate-"));
+        ExecutorService insertion = Executors.newFixedThreadPool(writers, threads("book-import-insert-"));
+        int index = 0;
+        try {
+            // Rows that fail to parse never reach a chunk, so each record carries its own row number.
+            List<T> chunk = new ArrayList<>(chunkSize);
+            int[] rows = new int[chunkSize];
+            while (progress.failure.get() == null) {
+                T record;
+                try {
+                    record = source.next();
+                } catch (IllegalArgumentException ex) {
+                    progress.reject(index++, ex.getMessage());
+                    continue;
+                }
+                if (record == null) {
+                    break;
+                }
+                rows[chunk.size()] = index++;
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    submit(chunk, rows, decoder, progress, inFlight, validation, insertion);
+                    chunk = new ArrayList<>(chunkSize);
+                    rows = new int[chunkSize];
+                }
+                if (index % PROGRESS_EVERY == 0) {
+                    log.info("Import read {} rows, {} imported and {} rejected so far ({} rows/s)",
+                            index, progress.imported.sum(), progress.rejected.sum(), progress.rate(index));
+                }
+            }
+            if (!chunk.isEmpty() && progress.failure.get() == null) {
+                submit(chunk, rows, decoder, progress, inFlight, validation, insertion);
+            }
+        } finally {
+            // Let the chunks already read finish, so the result counts every row that reached Mongo.
+            inFlight.acquireUninterruptibly(queueCapacity);
+            validation.shutdown();
+            insertion.shutdown();
+        }
+
+        Throwable failure = progress.failure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Import stopped after " + progress.imported.sum() + " books: "
+                    + failure.getMessage(), failure);
+        }
+        ImportResult result = progress.result(index);
+        log.info("Imported {} of {} rows in {} ms ({} rows/s), {} rejected",
+                result.imported(), result.read(), result.elapsedMillis(), result.rowsPerSecond(), result.rejected());
+        return result;
+    }
+
+    /**
+     * Hands the chunk to the validators and then to the writers. Blocks while the pipeline is full, which is
+     * what slows the reader down to the pace of the inserts.
+     */
+    private <T> void submit(List<T> records, int[] rows, Function<T, BookDTO> decoder, Progress progress,
+                            Semaphore inFlight, ExecutorService validation, ExecutorService insertion) {
+        inFlight.acquireUninterruptibly();
+        CompletableFuture.supplyAsync(() -> validate(records, rows, decoder, progress), validation)
+                .thenAcceptAsync(chunk -> insert(chunk, progress), insertion)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        progress.failure.compareAndSet(null, ex.getCause() != null ? ex.getCause() : ex);
+                    }
+                    inFlight.release();
+                });
+    }
+
+    private <T> Chunk validate(List<T> records, int[] rows, Function<T, BookDTO> decoder, Progress progress) {
+        List<Book> books = new ArrayList<>(records.size());
+        int[] indexes = new int[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            String error;
+            BookDTO bookDTO = null;
+            try {
+                bookDTO = decoder.apply(records.get(i));
+                error = BookBulkServiceImpl.validate(validator, bookDTO);
+            } catch (IllegalArgumentException ex) {
+                error = ex.getMessage();
+            }
+            if (error != null) {
+                progress.reject(rows[i], error);
+            } else {
+                indexes[books.size()] = rows[i];
+                books.add(BookBulkServiceImpl.toBookWithId(bookDTO));
+            }
+        }
+        return new Chunk(books, indexes);
+    }
+
+    private void insert(Chunk chunk, Progress progress) {
+        if (chunk.books().isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failures = bookRepository.insertUnordered(chunk.books());
+        for (int i = 0; i < chunk.books().size(); i++) {
+            String failure = failures.get(i);
+            if (failure != null) {
+                progress.reject(chunk.indexes()[i], failure);
+            } else {
+                eventPublisher.publishEvent(BookChangedEvent.created(chunk.books().get(i)));
+                progress.imported.increment();
+            }
+        }
+    }
+
+    private BookDTO readJson(String line) {
+        try {
+            return bookReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static String nextLine(BufferedReader lines) throws IOException {
+        String line = lines.readLine();
+        while (line != null && line.isBlank()) {
+            line = lines.readLine();
+        }
+        return line;
+    }
+
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface RecordSource<T> {
+        /**
+         * The next record, or null at the end of the input.
+         */
+        T next() throws IOException;
+    }
+
+    private record Chunk(List<Book> books, int[] indexes) {
+    }
+
+    /**
+     * Counts shared by the reader, validator and writer threads of one import.
+     */
+    private static final class Progress {
+        private final long start = System.nanoTime();
+        private final LongAdder imported = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // The latest of the earliest rejections is at the head, ready to be displaced.
+        private final PriorityQueue<BulkItemResult> rejections = new PriorityQueue<>(
+                Comparator.comparingInt(BulkItemResult::getIndex).reversed());
+
+        void reject(int index, String error) {
+            rejected.increment();
+            synchronized (rejections) {
+                if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                    rejections.add(BulkItemResult.failed(index, error));
+                } else if (index < rejections.peek().getIndex()) {
+                    rejections.poll();
+                    rejections.add(BulkItemResult.failed(index, error));
+                }
+            }
+        }
+
+        long rate(long rows) {
+            long nanos = Math.max(System.nanoTime() - start, 1);
+            return rows * 1_000_000_000L / nanos;
+        }
+
+        ImportResult result(long read) {
+            List<BulkItemResult> sample;
+            synchronized (rejections) {
+                sample = new ArrayList<>(rejections);
+            }
+            sample.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+            return new ImportResult(read, imported.sum(), rejected.sum(),
+                    (System.nanoTime() - start) / 1_000_000, rate(read), sample);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bookmanagement.service.impl;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.model.Book;
+import org.bson.types.ObjectId;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversions shared by the blocking and reactive book services.
+ */
+final class BookMapper {
+    private BookMapper() {}
+
+    static Book toBook(BookDTO bookDTO) {
+        Book book = new Book();
+        book.setTitle(bookDTO.title());
+        book.setAuthor(bookDTO.author());
+        book.setDescription(bookDTO.description());
+        book.setAvailable(bookDTO.available());
+        return book;
+    }
+
+    static Book copyOf(Book book) {
+        Book copy = new Book(book.getTitle(), book.getAuthor(), book.getDescription(), book.isAvailable());
+        copy.setId(book.getId());
+        return copy;
+    }
+
+    /**
+     * The fields a patch sets, keyed by property name. Absent (null) fields are left out.
+     */
+    static Map<String, Object> updatedFields(PartialDTO updates) {
+        if (updates == null) {
+            throw new RuntimeException("No update data provided");
+        }
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (updates.getAvailable() != null) {
+            fields.put("available", updates.getAvailable());
+        }
+
+        if (updates.getTitle() != null) {
+            if (updates.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Title cannot be blank");
+            }
+            fields.put("title", updates.getTitle());
+        }
+
+        if (updates.getDescription() != null) {
+            fields.put("description", updates.getDescription());
+        }
+
+        if (updates.getAuthor() != null) {
+            fields.put("author", updates.getAuthor());
+        }
+        return fields;
+    }
+
+    /**
+     * The book as it is after the patch, given the book as it was before.
+     */
+    static Book applyUpdates(Book before, PartialDTO updates) {
+        Book after = copyOf(before);
+        if (updates.getAvailable() != null) {
+            after.setAvailable(updates.getAvailable());
+        }
+        if (updates.getTitle() != null) {
+            after.setTitle(updates.getTitle());
+        }
+        if (updates.getDescription() != null) {
+            after.setDescription(updates.getDescription());
+        }
+        if (updates.getAuthor() != null) {
+            after.setAuthor(updates.getAuthor());
+        }
+        return after;
+    }
+
+    static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectId(id).toByteArray());
+    }
+
+    static String decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return new ObjectId(Base64.getUrlDecoder().decode(cursor)).toHexString();
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static void checkCheckpoint(String afterId) {
+        if (afterId != null && !ObjectId.isValid(afterId)) {
+            throw new IllegalArgumentException("After must be the id of a book");
+        }
+    }
+
+    static void checkTextSearch(String terms, int limit) {
+        if (terms == null || terms.isBlank()) {
+            throw new IllegalArgumentException("Search terms cannot be blank");
+        }
+        if (limit < 1 || limit > BookServiceImpl.MAX_TEXT_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + BookServiceImpl.MAX_TEXT_RESULTS);
+        }
+    }
+
+    static void checkPageLimit(int limit) {
+        if (limit < 1 || limit > BookServiceImpl.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + BookServiceImpl.MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -1,41 +1,100 @@
 package com.example.bookmanagement.service.impl;
 
+import com.example.bookmanagement.cache.BookSearchKey;
+import com.example.bookmanagement.cache.ReadThroughCache;
+import com.example.bookmanagement.cache.SingleFlight;
+import com.example.bookmanagement.config.CacheConfig;
 import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
 import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.exception.BookNotFoundException;
 import com.example.bookmanagement.model.Book;
 import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.search.CatalogReplica;
+import com.example.bookmanagement.search.TrigramIndex;
 import com.example.bookmanagement.service.BookService;
 import jakarta.validation.Valid;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class BookServiceImpl implements BookService {
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_TEXT_RESULTS = 100;
+
     private final BookRepository bookRepository;
-    public BookServiceImpl(BookRepository bookRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrigramIndex trigramIndex;
+    private final CatalogReplica catalogReplica;
+    private final SingleFlight singleFlight;
+    private final ReadThroughCache cache;
+    private final BookWriteOrder writeOrder;
+
+    public BookServiceImpl(BookRepository bookRepository, ApplicationEventPublisher eventPublisher,
+                           TrigramIndex trigramIndex, CatalogReplica catalogReplica, SingleFlight singleFlight,
+                           ReadThroughCache cache, BookWriteOrder writeOrder) {
         this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.trigramIndex = trigramIndex;
+        this.catalogReplica = catalogReplica;
+        this.singleFlight = singleFlight;
+        this.cache = cache;
+        this.writeOrder = writeOrder;
     }
 
     @Override
     public String createBook(@Valid @RequestBody BookDTO bookDTO){
-        Book newBook = new Book();
-        newBook.setTitle(bookDTO.getTitle());
-        newBook.setAuthor(bookDTO.getAuthor());
-        newBook.setDescription(bookDTO.getDescription());
-        newBook.setAvailable(bookDTO.isAvailable());
+        Book newBook = BookMapper.toBook(bookDTO);
 
         bookRepository.save(newBook);
+        eventPublisher.publishEvent(BookChangedEvent.created(newBook));
         return "Book created with id: " + newBook.getId();
     }
 
+    /**
+     * Cache misses for the same search that arrive together share one query through {@link SingleFlight}.
+     * The cache does not synchronize loads itself: that would hold a lock shared with unrelated keys for as
+     * long as the query runs. A result read while a write was being applied is returned but not cached.
+     */
     @Override
     public List<BookDTO> searchBooks(String title, String author, Boolean available) {
-        List<Book> books;
+        BookSearchKey key = BookSearchKey.of(title, author, available);
+        return cache.get(CacheConfig.BOOK_SEARCH_CACHE, key,
+                () -> singleFlight.execute(SingleFlight.Operation.SEARCH, key, () -> findBooks(title, author, available)));
+    }
+
+    /**
+     * Narrows title and author searches to the trigram candidates first, read from the replica when it is serving
+     * and from Mongo otherwise; the replica scans the catalog only for what the trigram index cannot answer.
+     */
+    private List<BookDTO> findBooks(String title, String author, Boolean available) {
+        if ((title != null || author != null) && trigramIndex.isReady()) {
+            Optional<List<String>> ids = trigramIndex.search(title, author, available);
+            if (ids.isPresent()) {
+                return catalogReplica.search(ids.get(), title, author, available)
+                        .orElseGet(() -> findIndexedBooks(ids.get(), title, author, available));
+            }
+        }
+        Optional<List<BookDTO>> replicated = catalogReplica.search(title, author, available);
+        if (replicated.isPresent()) {
+            return replicated.get();
+        }
+
+        List<BookDTO> books;
 
         if (title != null && author != null && available != null) {
-            books = bookRepository.findByTitleAndAuthorContainingIgnoreCaseAndAvailable(title, author, available);
+            books = bookRepository.findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCaseAndAvailable(title, author, available);
         } else if (title != null && available != null) {
             books = bookRepository.findByTitleContainingIgnoreCaseAndAvailable(title, available);
         } else if (author != null && available != null) {
@@ -47,63 +106,93 @@ public class BookServiceImpl implements BookService {
         } else if (available != null) {
             books = bookRepository.findByAvailable(available);
         } else {
-            books = bookRepository.findAll();
+            books = bookRepository.findAllBy();
         }
 
-        return books.stream()
-                .map(book -> new BookDTO(
-                        book.getTitle(),
-                        book.getAuthor(),
-                        book.getDescription(),
-                        book.isAvailable()
-                )).toList();
+        return Collections.unmodifiableList(books);
+    }
+
+    private List<BookDTO> findIndexedBooks(List<String> ids, String title, String author, Boolean available) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String titleTerm = TrigramIndex.normalize(title);
+        String authorTerm = TrigramIndex.normalize(author);
+
+        // Re-check the fetched documents so a stale index entry can never return a non-matching book.
+        List<BookDTO> books = new ArrayList<>(ids.size());
+        for (BookDTO book : bookRepository.findByIdIn(ids)) {
+            if ((titleTerm == null || TrigramIndex.normalize(book.title()).contains(titleTerm))
+                    && (authorTerm == null || TrigramIndex.normalize(book.author()).contains(authorTerm))
+                    && (available == null || book.available() == available)) {
+                books.add(book);
+            }
+        }
+        return Collections.unmodifiableList(books);
     }
 
     @Override
-    public List<String> getAvailableBookTitles() {
-        return bookRepository.findByAvailable(true).stream()
-                .map(Book::getTitle)
-                .toList();
+    public BookPage searchBooks(String title, String author, Boolean available, String cursor, int limit) {
+        BookMapper.checkPageLimit(limit);
+
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<BookDTO> books = bookRepository.findPage(title, author, available, BookMapper.decodeCursor(cursor), limit + 1);
+        boolean hasMore = books.size() > limit;
+        List<BookDTO> page = hasMore ? books.subList(0, limit) : books;
+        String nextCursor = hasMore ? BookMapper.encodeCursor(page.get(page.size() - 1).id()) : null;
+
+        return new BookPage(List.copyOf(page), nextCursor);
     }
 
     @Override
-    public String updateBook(String id, PartialDTO updates) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
+    public Stream<BookDTO> streamBooks(String title, String author, Boolean available) {
+        return bookRepository.streamBooks(title, author, available, BookDTO.class);
+    }
 
-        if (updates == null) {
-            throw new RuntimeException("No update data provided");
-        }
+    @Override
+    public List<BookSearchHit> searchText(String terms, Boolean available, int limit) {
+        BookMapper.checkTextSearch(terms, limit);
+        return bookRepository.findByText(terms, available, limit);
+    }
 
-        if (updates.getAvailable() != null) {
-            book.setAvailable(updates.getAvailable());
-        }
+    @Override
+    public List<String> getAvailableBookTitles() {
+        return cache.get(CacheConfig.AVAILABLE_TITLES_CACHE, SimpleKey.EMPTY,
+                () -> singleFlight.execute(SingleFlight.Operation.CHECK, "available", () -> catalogReplica.getAvailableTitles()
+                        .orElseGet(() -> bookRepository.findTitlesByAvailable(true))));
+    }
 
-        if (updates.getTitle() != null) {
-            if (updates.getTitle().isBlank()) {
-                throw new IllegalArgumentException("Title cannot be blank");
+    @Override
+    public String updateBook(String id, PartialDTO updates) {
+        Map<String, Object> fields = BookMapper.updatedFields(updates);
+        if (fields.isEmpty()) {
+            if (!bookRepository.existsById(id)) {
+                throw new BookNotFoundException(id);
             }
-            book.setTitle(updates.getTitle());
-        }
-
-        if (updates.getDescription() != null) {
-            book.setDescription(updates.getDescription());
+            return "Book details updated";
         }
 
-        if (updates.getAuthor() != null) {
-            book.setAuthor(updates.getAuthor());
-        }
+        return writeOrder.inOrder(id, () -> {
+            Book before = bookRepository.findAndSet(id, fields);
+            if (before == null) {
+                throw new BookNotFoundException(id);
+            }
 
-        bookRepository.save(book);
-        return "Book details updated";
+            Book after = BookMapper.applyUpdates(before, updates);
+            eventPublisher.publishEvent(BookChangedEvent.updated(before, after));
+            return "Book details updated";
+        });
     }
 
     @Override
     public String deleteBook(String id) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
-        bookRepository.delete(book);
-        return "Book with id " + id + " deleted";
+        return writeOrder.inOrder(id, () -> {
+            Book book = bookRepository.findAndDelete(id);
+            if (book == null) {
+                throw new BookNotFoundException(id);
+            }
+            eventPublisher.publishEvent(BookChangedEvent.deleted(book));
+            return "Book with id " + id + " deleted";
+        });
     }
-
 }
@@ -0,0 +1,67 @@
+package com.example.bookmanagement.service.impl;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs writes to an existing book, together with the publishing of their events, one at a time per book, so
+ * listeners that apply after-images see them in the order Mongo applied the writes. Shared by
+ * {@link BookServiceImpl} and {@link ReactiveBookServiceImpl}, so blocking and reactive writes to the same book
+ * are ordered against each other too.
+ * <p>
+ * Books are spread over a fixed number of stripes; each stripe keeps the completion of its latest write, and a
+ * write starts once the one before it has finished. A reactive write waits without holding a thread, which a
+ * lock could not do: it would have to be released on whichever thread the write finished on.
+ */
+@Component
+public class BookWriteOrder {
+    private static final int STRIPES = 64;
+
+    private final AtomicReference<CompletableFuture<Void>>[] latest;
+
+    @SuppressWarnings("unchecked")
+    public BookWriteOrder() {
+        latest = new AtomicReference[STRIPES];
+        for (int i = 0; i < latest.length; i++) {
+            latest[i] = new AtomicReference<>(CompletableFuture.completedFuture(null));
+        }
+    }
+
+    /**
+     * Runs the write on the calling thread once every earlier write to the book has finished.
+     */
+    public <T> T inOrder(String id, Supplier<T> write) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = stripe(id).getAndSet(done);
+        try {
+            previous.join();
+            return write.get();
+        } finally {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Subscribes to the write once every earlier write to the book has finished. The next write waits until this
+     * one completes, fails or is cancelled.
+     */
+    public <T> Mono<T> inOrder(String id, Mono<T> write) {
+        return Mono.defer(() -> {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture<Void> previous = stripe(id).getAndSet(done);
+            // A write cancelled while waiting must not let the ones queued behind it start before the earlier write
+            // has finished, so its turn ends only after the previous one; cancelling the wait leaves that untouched.
+            return Mono.fromFuture(previous, true)
+                    .then(write)
+                    .doFinally(signal -> previous.whenComplete((ignored, ex) -> done.complete(null)));
+        });
+    }
+
+    private AtomicReference<CompletableFuture<Void>> stripe(String id) {
+        return latest[Math.floorMod(id.hashCode(), latest.length)];
+    }
+}
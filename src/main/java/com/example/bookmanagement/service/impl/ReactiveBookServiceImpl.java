@@ -0,0 +1,188 @@
+package com.example.bookmanagement.service.impl;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.BulkItemResult;
+import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.exception.BookNotFoundException;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.ReactiveBookRepository;
+import com.example.bookmanagement.service.ReactiveBookService;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking implementation of the book operations on the reactive Mongo driver.
+ * Writes publish the same {@link BookChangedEvent}s as {@link BookServiceImpl}, on the bounded elastic scheduler:
+ * the listeners take locks and may write files, which must not hold up the driver's event loop. Updates and deletes
+ * go through the same {@link BookWriteOrder}, so events for one book are published in the order Mongo applied them.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+    private final ReactiveBookRepository bookRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookWriteOrder writeOrder;
+    private final int chunkSize;
+    private final int exportBatchSize;
+
+    public ReactiveBookServiceImpl(ReactiveBookRepository bookRepository, Validator validator,
+                                   ApplicationEventPublisher eventPublisher, BookWriteOrder writeOrder,
+                                   @Value("${books.bulk.chunk-size:1000}") int chunkSize,
+                                   @Value("${books.export.batch-size:1000}") int exportBatchSize) {
+        this.bookRepository = bookRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.writeOrder = writeOrder;
+        this.chunkSize = chunkSize;
+        this.exportBatchSize = exportBatchSize;
+    }
+
+    @Override
+    public Mono<String> createBook(BookDTO bookDTO) {
+        return bookRepository.save(BookMapper.toBook(bookDTO))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)))
+                .map(book -> "Book created with id: " + book.getId());
+    }
+
+    @Override
+    public Mono<BulkCreateResult> createBooks(Flux<BookDTO> books) {
+        return books.index()
+                .buffer(chunkSize)
+                .concatMap(this::insertChunk)
+                .concatMapIterable(results -> results)
+                .collectList()
+                .map(BulkCreateResult::new);
+    }
+
+    private Mono<List<BulkItemResult>> insertChunk(List<Tuple2<Long, BookDTO>> chunk) {
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        List<Book> valid = new ArrayList<>(chunk.size());
+        List<BulkItemResult> validResults = new ArrayList<>(chunk.size());
+        for (Tuple2<Long, BookDTO> item : chunk) {
+            int index = item.getT1().intValue();
+            String error = BookBulkServiceImpl.validate(validator, item.getT2());
+            if (error != null) {
+                results.add(BulkItemResult.failed(index, error));
+            } else {
+                Book book = BookBulkServiceImpl.toBookWithId(item.getT2());
+                BulkItemResult result = BulkItemResult.created(index, book.getId());
+                valid.add(book);
+                validResults.add(result);
+                results.add(result);
+            }
+        }
+        if (valid.isEmpty()) {
+            return Mono.just(results);
+        }
+        return bookRepository.insertUnordered(valid).publishOn(Schedulers.boundedElastic()).map(failures -> {
+            for (int i = 0; i < valid.size(); i++) {
+                String failure = failures.get(i);
+                if (failure != null) {
+                    validResults.get(i).setId(null);
+                    validResults.get(i).setError(failure);
+                } else {
+                    eventPublisher.publishEvent(BookChangedEvent.created(valid.get(i)));
+                }
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public Flux<BookDTO> searchBooks(String title, String author, Boolean available) {
+        return bookRepository.streamBooks(title, author, available, BookDTO.class);
+    }
+
+    @Override
+    public Mono<BookPage> searchBooks(String title, String author, Boolean available, String cursor, int limit) {
+        return Mono.defer(() -> {
+                    BookMapper.checkPageLimit(limit);
+                    return bookRepository.findPage(title, author, available, BookMapper.decodeCursor(cursor), limit + 1)
+                            .collectList();
+                })
+                .map(books -> {
+                    boolean hasMore = books.size() > limit;
+                    List<BookDTO> page = hasMore ? books.subList(0, limit) : books;
+                    String nextCursor = hasMore ? BookMapper.encodeCursor(page.get(page.size() - 1).id()) : null;
+                    return new BookPage(List.copyOf(page), nextCursor);
+                });
+    }
+
+    /**
+     * Emits the books after {@code afterId} in id order; see {@link BookExportServiceImpl#export}.
+     */
+    @Override
+    public Flux<BookDTO> exportBooks(String afterId) {
+        return Flux.defer(() -> {
+            BookMapper.checkCheckpoint(afterId);
+            return bookRepository.streamAfter(afterId, exportBatchSize);
+        });
+    }
+
+    /**
+     * The same books as {@link #exportBooks}, as a CSV header followed by one row per book.
+     */
+    @Override
+    public Flux<String> exportCsv(String afterId) {
+        return exportBooks(afterId)
+                .map(BookCsvCodec::row)
+                .startWith(BookCsvCodec.HEADER + BookCsvCodec.LINE_END);
+    }
+
+    @Override
+    public Flux<BookSearchHit> searchText(String terms, Boolean available, int limit) {
+        return Flux.defer(() -> {
+            BookMapper.checkTextSearch(terms, limit);
+            return bookRepository.findByText(terms, available, limit);
+        });
+    }
+
+    @Override
+    public Flux<String> getAvailableBookTitles() {
+        return bookRepository.findTitlesByAvailable(true);
+    }
+
+    @Override
+    public Mono<String> updateBook(String id, PartialDTO updates) {
+        return Mono.fromCallable(() -> BookMapper.updatedFields(updates))
+                .flatMap(fields -> {
+                    if (fields.isEmpty()) {
+                        return bookRepository.existsById(id)
+                                .flatMap(exists -> exists
+                                        ? Mono.just("Book details updated")
+                                        : Mono.error(new BookNotFoundException(id)));
+                    }
+                    return writeOrder.inOrder(id, bookRepository.findAndSet(id, fields)
+                            .switchIfEmpty(Mono.error(new BookNotFoundException(id)))
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnNext(before -> eventPublisher.publishEvent(
+                                    BookChangedEvent.updated(before, BookMapper.applyUpdates(before, updates))))
+                            .thenReturn("Book details updated"));
+                });
+    }
+
+    @Override
+    public Mono<String> deleteBook(String id) {
+        return writeOrder.inOrder(id, bookRepository.findAndDelete(id)
+                .switchIfEmpty(Mono.error(new BookNotFoundException(id)))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(book -> eventPublisher.publishEvent(BookChangedEvent.deleted(book)))
+                .thenReturn("Book with id " + id + " deleted"));
+    }
+}
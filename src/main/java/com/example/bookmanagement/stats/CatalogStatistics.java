@@ -0,0 +1,195 @@
+package com.example.bookmanagement.stats;
+
+import com.example.bookmanagement.dto.AuthorCount;
+import com.example.bookmanagement.dto.CatalogStats;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.search.CatalogIndex;
+import com.example.bookmanagement.search.CatalogIndexBootstrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Book counts for the whole catalog, per author and in total, kept in memory. They are loaded by
+ * {@link CatalogIndexBootstrapper} in its pass over the books collection, retried like any other index until a pass
+ * completes, and then adjusted by every {@link BookChangedEvent}, so reading them never touches Mongo. Authors are
+ * also kept ranked by book count for the top-N list.
+ * <p>
+ * A write during a load is counted in the new tallies right away, and the cursor's copy of that book is skipped
+ * when it arrives, so the counts installed by {@link #finishLoad()} are exact. The previous counts keep being
+ * served until then. Until a load has finished, or when {@code books.stats.enabled} is false, statistics are
+ * computed by running an aggregation on each call.
+ */
+@Component
+public class CatalogStatistics implements CatalogIndex {
+    public static final int MAX_TOP_AUTHORS = 100;
+    private static final Comparator<AuthorTally> RANKING = Comparator
+            .comparingLong((AuthorTally tally) -> tally.books).reversed()
+            .thenComparing(tally -> tally.author, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final BookRepository bookRepository;
+    private final boolean enabled;
+    // While loading, the books counted in the new tallies and the ones whose cursor copy must be skipped.
+    private final Set<String> loadedIds = new HashSet<>();
+    private final Set<String> changedWhileLoading = new HashSet<>();
+    private Tallies live;
+    private Tallies loading;
+
+    public CatalogStatistics(BookRepository bookRepository, @Value("${books.stats.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void beginLoad() {
+        loading = new Tallies();
+        loadedIds.clear();
+        changedWhileLoading.clear();
+    }
+
+    @Override
+    public synchronized void load(Book book) {
+        // A write that raced with the bootstrap read is newer than what the cursor returned, and a book the cursor
+        // returns twice is counted once.
+        if (loading != null && !changedWhileLoading.contains(book.getId()) && loadedIds.add(book.getId())) {
+            loading.adjust(book, 1);
+        }
+    }
+
+    @Override
+    public synchronized void finishLoad() {
+        if (loading == null) {
+            return;
+        }
+        live = loading;
+        loading = null;
+        loadedIds.clear();
+        changedWhileLoading.clear();
+    }
+
+    @Override
+    public synchronized void abortLoad() {
+        loading = null;
+        loadedIds.clear();
+        changedWhileLoading.clear();
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+        return live != null;
+    }
+
+    @EventListener
+    @Order(BookChangedEvent.READ_MODEL_ORDER)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        if (loading != null) {
+            String id = event.getId();
+            changedWhileLoading.add(id);
+            // The before-image is only in the new tallies if the cursor already returned the book.
+            if (event.getBefore() != null && loadedIds.remove(id)) {
+                loading.adjust(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                loading.adjust(event.getAfter(), 1);
+                loadedIds.add(id);
+            }
+        }
+        if (live != null) {
+            if (event.getBefore() != null) {
+                live.adjust(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                live.adjust(event.getAfter(), 1);
+            }
+        }
+    }
+
+    public CatalogStats getStats(int top) {
+        if (top < 0 || top > MAX_TOP_AUTHORS) {
+            throw new IllegalArgumentException("Top must be between 0 and " + MAX_TOP_AUTHORS);
+        }
+        synchronized (this) {
+            if (live != null) {
+                return live.toStats(top);
+            }
+        }
+        return aggregate(top);
+    }
+
+    private CatalogStats aggregate(int top) {
+        List<AuthorCount> counts = bookRepository.countBooksByAuthor();
+        long books = counts.stream().mapToLong(AuthorCount::books).sum();
+        long availableBooks = counts.stream().mapToLong(AuthorCount::available).sum();
+        List<AuthorCount> topAuthors = counts.stream()
+                .sorted(Comparator.comparingLong(AuthorCount::books).reversed()
+                        .thenComparing(AuthorCount::author, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .limit(top)
+                .toList();
+        return new CatalogStats(books, availableBooks, books - availableBooks, topAuthors);
+    }
+
+    private static final class Tallies {
+        private final Map<String, AuthorTally> byAuthor = new HashMap<>();
+        private final TreeSet<AuthorTally> ranking = new TreeSet<>(RANKING);
+        private long total;
+        private long available;
+
+        private void adjust(Book book, int delta) {
+            int availableDelta = book.isAvailable() ? delta : 0;
+            total += delta;
+            available += availableDelta;
+
+            AuthorTally tally = byAuthor.computeIfAbsent(book.getAuthor(), AuthorTally::new);
+            // The ranking is ordered by count, so the entry must leave the set before its count changes.
+            ranking.remove(tally);
+            tally.books += delta;
+            tally.available += availableDelta;
+            if (tally.books > 0) {
+                ranking.add(tally);
+            } else {
+                byAuthor.remove(book.getAuthor());
+            }
+        }
+
+        private CatalogStats toStats(int top) {
+            List<AuthorCount> topAuthors = new ArrayList<>(Math.min(top, ranking.size()));
+            Iterator<AuthorTally> iterator = ranking.iterator();
+            while (topAuthors.size() < top && iterator.hasNext()) {
+                topAuthors.add(iterator.next().toAuthorCount());
+            }
+            return new CatalogStats(total, available, total - available, topAuthors);
+        }
+    }
+
+    private static final class AuthorTally {
+        private final String author;
+        private long books;
+        private long available;
+
+        private AuthorTally(String author) {
+            this.author = author;
+        }
+
+        private AuthorCount toAuthorCount() {
+            return new AuthorCount(author, books, available);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bookmanagement;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.service.impl.BookBulkServiceImpl;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookBulkServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookBulkServiceImpl bookBulkService;
+
+    @BeforeEach
+    void setUp() {
+        bookBulkService = new BookBulkServiceImpl(bookRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher, 2);
+    }
+
+    @Test
+    void testCreateBooks_shouldInsertValidBooksInChunks() {
+        List<List<Book>> chunks = new ArrayList<>();
+        when(bookRepository.insertUnordered(any())).thenAnswer(invocation -> {
+            chunks.add(List.copyOf(invocation.getArgument(0)));
+            return Map.of();
+        });
+
+        BulkCreateResult result = bookBulkService.createBooks(List.of(
+                new BookDTO("One", "Author", null, true),
+                new BookDTO("Two", "Author", null, true),
+                new BookDTO("Three", "Author", null, false)).iterator());
+
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        assertEquals(chunks.get(0).get(0).getId(), result.getItems().get(0).getId());
+        verify(eventPublisher, times(3)).publishEvent(any(BookChangedEvent.class));
+    }
+    @Test
+    void testCreateBooks_whenItemIsInvalid_shouldReportItAndInsertTheRest() {
+        when(bookRepository.insertUnordered(any())).thenReturn(Map.of());
+
+        BulkCreateResult result = bookBulkService.createBooks(List.of(
+                new BookDTO("", "Author", null, true),
+                new BookDTO("Valid", "Author", null, true)).iterator());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(0, result.getItems().get(0).getIndex());
+        assertNull(result.getItems().get(0).getId());
+        assertTrue(result.getItems().get(0).getError().startsWith("title: "));
+        assertNotNull(result.getItems().get(1).getId());
+    }
+    @Test
+    void testCreateBooks_whenInsertFailsForOneBook_shouldReportWriteError() {
+        when(bookRepository.insertUnordered(any())).thenReturn(Map.of(1, "E11000 duplicate key error"));
+
+        BulkCreateResult result = bookBulkService.createBooks(List.of(
+                new BookDTO("One", "Author", null, true),
+                new BookDTO("Two", "Author", null, true)).iterator());
+
+        assertEquals(1, result.getCreated());
+        assertEquals("E11000 duplicate key error", result.getItems().get(1).getError());
+        assertNull(result.getItems().get(1).getId());
+        ArgumentCaptor<BookChangedEvent> events = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertEquals("One", events.getValue().getAfter().getTitle());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookmanagement;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.service.impl.BookExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookExportServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BookExportServiceImpl bookExportService;
+
+    @BeforeEach
+    void setUp() {
+        bookExportService = new BookExportServiceImpl(bookRepository, objectMapper, 2);
+    }
+
+    @Test
+    void testExport_asNdjson_shouldWriteOneBookPerLine() throws IOException {
+        BookDTO first = new BookDTO("1", "Clean Code", "Robert C. Martin", null, true);
+        BookDTO second = new BookDTO("2", "Refactoring", "Martin Fowler", "Desc", false);
+        when(bookRepository.streamAfter(null, 2)).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<String> closed = new ArrayList<>();
+        FilterOutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void close() throws IOException {
+                closed.add(bytes.toString(StandardCharsets.UTF_8));
+                super.close();
+            }
+        };
+
+        long count = bookExportService.export(BookFormat.NDJSON, null).writeTo(out);
+
+        assertEquals(2, count);
+        assertEquals(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n",
+                bytes.toString(StandardCharsets.UTF_8));
+        // Left open so the controller can still end the response with its trailer.
+        assertTrue(closed.isEmpty());
+    }
+    @Test
+    void testExport_asCsv_shouldQuoteFieldsAndFlushEveryBatch() throws IOException {
+        when(bookRepository.streamAfter("65a1b2c3d4e5f60718293a4b", 2)).thenReturn(Stream.of(
+                new BookDTO("1", "Code, Second Edition", "Steve \"The\" Author", "Line\nbreak", true),
+                new BookDTO("2", "Refactoring", "Martin Fowler", null, false),
+                new BookDTO("3", "Clean Code", "Robert C. Martin", "Desc", true)));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<String> flushed = new ArrayList<>();
+        FilterOutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void flush() throws IOException {
+                super.flush();
+                flushed.add(bytes.toString(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void close() {
+                fail("The export must leave the response stream open");
+            }
+        };
+
+        long count = bookExportService.export(BookFormat.CSV, "65a1b2c3d4e5f60718293a4b").writeTo(out);
+
+        assertEquals(3, count);
+        assertEquals("id,title,author,description,available\r\n"
+                        + "1,\"Code, Second Edition\",\"Steve \"\"The\"\" Author\",\"Line\nbreak\",true\r\n"
+                        + "2,Refactoring,Martin Fowler,,false\r\n"
+                        + "3,Clean Code,Robert C. Martin,Desc,true\r\n",
+                bytes.toString(StandardCharsets.UTF_8));
+        // The first batch of two reaches the client before the third book is read.
+        assertTrue(flushed.get(0).endsWith("2,Refactoring,Martin Fowler,,false\r\n"));
+    }
+    @Test
+    void testExport_whenCheckpointIsNotAnId_shouldThrowBeforeQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> bookExportService.export(BookFormat.CSV, "abc"));
+        verifyNoInteractions(bookRepository);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.bookmanagement;
+
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.ImportResult;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.service.impl.BookImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookImportServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookImportServiceImpl bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportServiceImpl(bookRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher, new ObjectMapper(),
+                2, 2, 2, 2);
+    }
+
+    @Test
+    void testImportBooks_fromNdjson_shouldInsertValidRowsAndReportRejected() throws IOException {
+        Queue<Book> inserted = new ConcurrentLinkedQueue<>();
+        when(bookRepository.insertUnordered(any())).thenAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return Map.of();
+        });
+
+        ImportResult result = bookImportService.importBooks(input("""
+                {"title":"Clean Code","author":"Robert C. Martin","available":true}
+                {"title":"","author":"Nobody"}
+
+                {"title":"Refactoring",
+                {"title":"Code Complete","author":"Steve McConnell"}
+                {"title":"Clean Agile","author":"Robert C. Martin"}
+                """), BookFormat.NDJSON);
+
+        assertEquals(5, result.read());
+        assertEquals(3, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of(1, 2), result.rejections().stream().map(rejection -> rejection.getIndex()).toList());
+        assertEquals("title: must not be blank", result.rejections().get(0).getError());
+        assertTrue(result.rejections().get(1).getError().startsWith("Malformed JSON"));
+        assertEquals(3, inserted.size());
+        inserted.forEach(book -> assertNotNull(book.getId()));
+        verify(eventPublisher, times(3)).publishEvent(any(BookChangedEvent.class));
+    }
+    @Test
+    void testImportBooks_fromCsv_shouldReadQuotedFieldsAndRejectFailedInserts() throws IOException {
+        Queue<Book> inserted = new ConcurrentLinkedQueue<>();
+        when(bookRepository.insertUnordered(any())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            inserted.addAll(books);
+            for (int i = 0; i < books.size(); i++) {
+                if (books.get(i).getTitle().equals("Refactoring")) {
+                    return Map.of(i, "E11000 duplicate key");
+                }
+            }
+            return Map.of();
+        });
+
+        ImportResult result = bookImportService.importBooks(input(
+                "Author,Title,Available,Description\r\n"
+                        + "\"Martin, Robert C.\",Clean Code,TRUE,\"A \"\"handbook\"\"\r\nof craftsmanship\"\r\n"
+                        + "Martin Fowler,Refactoring,false,\r\n"
+                        + "Steve McConnell,Code Complete,maybe,\r\n"
+                        + "Kent Beck,Test Driven Development\r\n"), BookFormat.CSV);
+
+        assertEquals(4, result.read());
+        assertEquals(1, result.imported());
+        assertEquals(List.of(1, 2, 3), result.rejections().stream().map(rejection -> rejection.getIndex()).toList());
+        assertEquals("E11000 duplicate key", result.rejections().get(0).getError());
+        assertEquals("available must be true or false", result.rejections().get(1).getError());
+        assertEquals("Expected 4 fields but found 2", result.rejections().get(2).getError());
+
+        Book cleanCode = inserted.stream().filter(book -> book.getTitle().equals("Clean Code")).findFirst().orElseThrow();
+        assertEquals("Martin, Robert C.", cleanCode.getAuthor());
+        assertEquals("A \"handbook\"\r\nof craftsmanship", cleanCode.getDescription());
+        assertTrue(cleanCode.isAvailable());
+        verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+    }
+    @Test
+    void testImportBooks_whenCsvRowIsMalformed_shouldNumberLaterRowsByInputPosition() throws IOException {
+        when(bookRepository.insertUnordered(any())).thenReturn(Map.of());
+
+        ImportResult result = bookImportService.importBooks(input(
+                "title,author\r\n"
+                        + "Clean Code,Robert C. Martin\r\n"
+                        + "\"Refactoring\"x,Martin Fowler\r\n"
+                        + ",Steve McConnell\r\n"
+                        + "Clean Agile,Robert C. Martin\r\n"), BookFormat.CSV);
+
+        assertEquals(4, result.read());
+        assertEquals(2, result.imported());
+        assertEquals(List.of(1, 2), result.rejections().stream().map(rejection -> rejection.getIndex()).toList());
+        assertEquals("Unexpected character after quoted field 1", result.rejections().get(0).getError());
+        assertEquals("title: must not be blank", result.rejections().get(1).getError());
+    }
+    @Test
+    void testImportBooks_whenCsvQuoteIsNeverClosed_shouldRejectRowWithoutBufferingRestOfInput() throws IOException {
+        when(bookRepository.insertUnordered(any())).thenReturn(Map.of());
+
+        ImportResult result = bookImportService.importBooks(input(
+                "title,author\r\n"
+                        + "Clean Code,Robert C. Martin\r\n"
+                        + "\"" + "Refactoring ".repeat(10_000) + "\r\n"), BookFormat.CSV);
+
+        assertEquals(2, result.read());
+        assertEquals(1, result.imported());
+        assertEquals("Quoted field is not closed before the end of the input", result.rejections().get(0).getError());
+    }
+    @Test
+    void testImportBooks_whenCsvFieldIsTooLong_shouldRejectOnlyThatRow() throws IOException {
+        when(bookRepository.insertUnordered(any())).thenReturn(Map.of());
+
+        ImportResult result = bookImportService.importBooks(input(
+                "title,author\r\n"
+                        + "x".repeat(10_000) + ",Robert C. Martin\r\n"
+                        + "Clean Agile,Robert C. Martin\r\n"), BookFormat.CSV);
+
+        assertEquals(2, result.read());
+        assertEquals(1, result.imported());
+        assertEquals(0, result.rejections().get(0).getIndex());
+        assertTrue(result.rejections().get(0).getError().startsWith("Field is longer than"));
+    }
+    @Test
+    void testImportBooks_whenCsvHeaderIsUnknown_shouldThrowBeforeInserting() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookImportService.importBooks(input("title,author,isbn\r\n"), BookFormat.CSV));
+        verifyNoInteractions(bookRepository);
+    }
+    @Test
+    void testImportBooks_whenInsertFails_shouldStopAndReportImportedCount() {
+        when(bookRepository.insertUnordered(any())).thenThrow(new IllegalStateException("Connection refused"));
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            rows.append("{\"title\":\"Title ").append(i).append("\",\"author\":\"Author\"}\n");
+        }
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> bookImportService.importBooks(input(rows.toString()), BookFormat.NDJSON));
+
+        assertEquals("Import stopped after 0 books: Connection refused", ex.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
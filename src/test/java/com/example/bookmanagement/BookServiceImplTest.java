@@ -1,25 +1,47 @@
 package com.example.bookmanagement;
 
 
+import com.example.bookmanagement.cache.ReadThroughCache;
+import com.example.bookmanagement.cache.SearchCacheInvalidator;
+import com.example.bookmanagement.cache.SingleFlight;
 import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
 import com.example.bookmanagement.dto.PartialDTO;
 import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.exception.BookNotFoundException;
 import com.example.bookmanagement.repository.BookRepository;
+import com.example.bookmanagement.search.CatalogReplica;
+import com.example.bookmanagement.search.TrigramIndex;
 import com.example.bookmanagement.service.impl.BookServiceImpl;
+import com.example.bookmanagement.service.impl.BookWriteOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +52,25 @@ public class BookServiceImplTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TrigramIndex trigramIndex = new TrigramIndex(true);
+
+    @Spy
+    private CatalogReplica catalogReplica = new CatalogReplica(false, "unused", event -> {});
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(true, new SearchCacheInvalidator(new NoOpCacheManager()), new SimpleMeterRegistry());
+
+    @Spy
+    private ReadThroughCache cache =
+            new ReadThroughCache(new NoOpCacheManager(), new SearchCacheInvalidator(new NoOpCacheManager()));
+
+    @Spy
+    private BookWriteOrder writeOrder = new BookWriteOrder();
+
     private String title;
     private String author;
     private String description;
@@ -43,91 +84,202 @@ public class BookServiceImplTest {
     @Test
     void testCreateBook_shouldSaveSuccessfully() {
         BookDTO dto = new BookDTO(title, author, description, true);
-        Book savedBook = new Book(dto.getTitle(), dto.getAuthor(), dto.getDescription(), dto.isAvailable());
+        Book savedBook = new Book(dto.title(), dto.author(), dto.description(), dto.available());
 
         when(bookRepository.save(any(Book.class))).thenReturn(savedBook);
 
         String result = bookService.createBook(dto);
         assertTrue(result.contains("Book created with id: "));
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+    @Test
+    void testSearchBooks_whenTrigramIndexIsReady_shouldFetchCandidatesById() {
+        Book match = new Book("Clean Code", "Robert C. Martin", description, true);
+        match.setId("1");
+        Book other = new Book("Refactoring", "Martin Fowler", description, true);
+        other.setId("2");
+        trigramIndex.beginLoad();
+        trigramIndex.load(match);
+        trigramIndex.load(other);
+        trigramIndex.finishLoad();
+        when(bookRepository.findByIdIn(List.of("1")))
+                .thenReturn(List.of(new BookDTO("1", "Clean Code", "Robert C. Martin", description, true)));
+
+        List<BookDTO> result = bookService.searchBooks("CLEAN", "martin", null);
+        assertEquals(1, result.size());
+        assertEquals("1", result.get(0).id());
+        assertEquals("Clean Code", result.get(0).title());
+        verify(bookRepository, never()).findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCaseAndAvailable(any(), any(), any());
+    }
+    @Test
+    void testSearchBooks_whenTrigramIndexAndReplicaAreReady_shouldReadCandidatesFromReplica() {
+        Book match = new Book("Clean Code", "Robert C. Martin", description, true);
+        match.setId("1");
+        trigramIndex.beginLoad();
+        trigramIndex.load(match);
+        trigramIndex.finishLoad();
+        List<BookDTO> replicated = List.of(new BookDTO("1", "Clean Code", "Robert C. Martin", description, true));
+        doReturn(Optional.of(replicated)).when(catalogReplica).search(List.of("1"), "CLEAN", "martin", null);
+
+        assertEquals(replicated, bookService.searchBooks("CLEAN", "martin", null));
+        verify(catalogReplica, never()).search("CLEAN", "martin", null);
+        verifyNoInteractions(bookRepository);
+    }
+    @Test
+    void testSearchBooks_whenReplicaIsServing_shouldNotQueryRepository() {
+        List<BookDTO> replicated = List.of(new BookDTO("1", "Clean Code", "Robert C. Martin", description, true));
+        doReturn(Optional.of(replicated)).when(catalogReplica).search("clean", null, true);
+        doReturn(Optional.of(List.of("Clean Code"))).when(catalogReplica).getAvailableTitles();
+
+        assertEquals(replicated, bookService.searchBooks("clean", null, true));
+        assertEquals(List.of("Clean Code"), bookService.getAvailableBookTitles());
+        verifyNoInteractions(bookRepository);
+    }
+    @Test
+    void testSearchBooks_whenTermIsTooShortForTrigrams_shouldQueryRepository() {
+        trigramIndex.beginLoad();
+        trigramIndex.finishLoad();
+        when(bookRepository.findByTitleContainingIgnoreCase("ab")).thenReturn(List.of());
+
+        assertTrue(bookService.searchBooks("ab", null, null).isEmpty());
+        verify(bookRepository).findByTitleContainingIgnoreCase("ab");
     }
 
     @Test
     void testSearchBooks_whenTitleAndAvailable_shouldCallTitleAvailableRepoMethod(){
-        List<Book> mockBooks = List.of(new Book(title, author, description,true));
+        List<BookDTO> mockBooks = List.of(new BookDTO(title, author, description, true));
         when(bookRepository.findByTitleContainingIgnoreCaseAndAvailable(title, true))
                 .thenReturn(mockBooks);
 
         List<BookDTO> result = bookService.searchBooks(title, null, true);
         assertEquals(1, result.size());
-        assertEquals(title, result.get(0).getTitle());
+        assertEquals(title, result.get(0).title());
         verify(bookRepository).findByTitleContainingIgnoreCaseAndAvailable(title, true);
     }
     @Test
     void testSearchBooks_whenTitleAndAuthorAndTitleAvailable_shouldCallTitleAndAuthorAndAvailable() {
-        List<Book> mockBooks = List.of(new Book(title, author, description,true));
-        when(bookRepository.findByTitleAndAuthorContainingIgnoreCaseAndAvailable(title, author, true))
+        List<BookDTO> mockBooks = List.of(new BookDTO(title, author, description, true));
+        when(bookRepository.findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCaseAndAvailable(title, author, true))
                 .thenReturn(mockBooks);
 
         List<BookDTO> result = bookService.searchBooks(title, author, true);
         assertEquals(1, result.size());
-        assertEquals(title, result.get(0).getTitle());
-        assertEquals(author, result.get(0).getAuthor());
-        verify(bookRepository).findByTitleAndAuthorContainingIgnoreCaseAndAvailable(title, author, true);
+        assertEquals(title, result.get(0).title());
+        assertEquals(author, result.get(0).author());
+        verify(bookRepository).findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCaseAndAvailable(title, author, true);
     }
     @Test
     void testSearchBooks_whenAuthorAndAvailable_shouldCallAuthorAndAvailable() {
-        List<Book> mockBooks = List.of(new Book(title, author, description,true));
+        List<BookDTO> mockBooks = List.of(new BookDTO(title, author, description, true));
         when(bookRepository.findByAuthorContainingIgnoreCaseAndAvailable(author, true))
                 .thenReturn(mockBooks);
 
         List<BookDTO> result = bookService.searchBooks(null ,author, true);
         assertEquals(1, result.size());
-        assertEquals(author, result.get(0).getAuthor());
+        assertEquals(author, result.get(0).author());
         verify(bookRepository).findByAuthorContainingIgnoreCaseAndAvailable(author, true);
     }
     @Test
     void testSearchBooks_whenTitle_shouldCallTitleRepoMethod() {
-        List<Book> mockBooks = List.of(new Book(title, author, description, true));
+        List<BookDTO> mockBooks = List.of(new BookDTO(title, author, description, true));
         when(bookRepository.findByTitleContainingIgnoreCase(title))
                 .thenReturn(mockBooks);
 
         List<BookDTO> result = bookService.searchBooks(title, null, null);
         assertEquals(1, result.size());
-        assertEquals(title, result.get(0).getTitle());
+        assertEquals(title, result.get(0).title());
         verify(bookRepository).findByTitleContainingIgnoreCase(title);
     }
     @Test
     void testSearchBooks_whenAuthor_shouldCallAuthorAvailableRepoMethod() {
-        List<Book> mockBooks = List.of(new Book(title, author, description, true));
+        List<BookDTO> mockBooks = List.of(new BookDTO(title, author, description, true));
         when(bookRepository.findByAuthorContainingIgnoreCase(author))
                 .thenReturn(mockBooks);
 
         List<BookDTO> result = bookService.searchBooks(null, author, null);
         assertEquals(1, result.size());
-        assertEquals(author, result.get(0).getAuthor());
+        assertEquals(author, result.get(0).author());
         verify(bookRepository).findByAuthorContainingIgnoreCase(author);
     }
     @Test
     void testSearchBooks_shouldCallfindAll() {
-        List<Book> mockBooks = List.of(new Book(title, author, description, true), new Book("t", "a", "d", true));
-        when(bookRepository.findAll())
+        List<BookDTO> mockBooks = List.of(new BookDTO(title, author, description, true), new BookDTO("t", "a", "d", true));
+        when(bookRepository.findAllBy())
                 .thenReturn(mockBooks);
 
         List<BookDTO> result = bookService.searchBooks(null, null, null);
         assertEquals(2, result.size());
-        assertEquals(title, result.get(0).getTitle());
-        assertEquals(author,result.get(0).getAuthor());
-        assertEquals("t", result.get(1).getTitle());
-        assertEquals("a", result.get(1).getAuthor());
-        verify(bookRepository).findAll();
+        assertEquals(title, result.get(0).title());
+        assertEquals(author,result.get(0).author());
+        assertEquals("t", result.get(1).title());
+        assertEquals("a", result.get(1).author());
+        verify(bookRepository).findAllBy();
+    }
+    @Test
+    void testSearchBooksPage_whenMoreResults_shouldReturnNextCursor() {
+        BookDTO first = new BookDTO(new ObjectId().toHexString(), title, author, description, true);
+        BookDTO second = new BookDTO(new ObjectId().toHexString(), "t", "a", "d", true);
+        when(bookRepository.findPage(null, null, null, null, 2))
+                .thenReturn(List.of(first, second));
+
+        BookPage page = bookService.searchBooks(null, null, null, null, 1);
+        assertEquals(1, page.getBooks().size());
+        assertEquals(title, page.getBooks().get(0).title());
+        assertNotNull(page.getNextCursor());
+
+        when(bookRepository.findPage(null, null, null, first.id(), 2))
+                .thenReturn(List.of(second));
+
+        BookPage next = bookService.searchBooks(null, null, null, page.getNextCursor(), 1);
+        assertEquals(1, next.getBooks().size());
+        assertEquals("t", next.getBooks().get(0).title());
+        assertNull(next.getNextCursor());
+    }
+    @Test
+    void testSearchBooksPage_whenCursorIsInvalid_shouldThrowIllegalArgumentException() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> bookService.searchBooks(title, null, null, "not-a-cursor", 10)
+        );
+        verify(bookRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+    @Test
+    void testStreamBooks_shouldStreamProjectedBooks() {
+        when(bookRepository.streamBooks(title, null, true, BookDTO.class))
+                .thenReturn(Stream.of(new BookDTO(title, author, description, true)));
+
+        List<BookDTO> result = bookService.streamBooks(title, null, true).toList();
+        assertEquals(1, result.size());
+        assertEquals(title, result.get(0).title());
+        assertEquals(author, result.get(0).author());
+    }
+    @Test
+    void testGetAvailableBookTitles_shouldUseTitleProjection() {
+        when(bookRepository.findTitlesByAvailable(true)).thenReturn(List.of(title, "t"));
+
+        List<String> result = bookService.getAvailableBookTitles();
+        assertEquals(List.of(title, "t"), result);
+        verify(bookRepository, never()).findByAvailable(any());
+    }
+    @Test
+    void testSearchText_shouldReturnRankedHitsFromRepository() {
+        List<BookSearchHit> hits = List.of(new BookSearchHit("1", title, author, description, true, 2.5));
+        when(bookRepository.findByText("test title", true, 5)).thenReturn(hits);
+
+        assertEquals(hits, bookService.searchText("test title", true, 5));
+    }
+    @Test
+    void testSearchText_whenTermsBlankOrLimitOutOfRange_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.searchText(" ", null, 5));
+        assertThrows(IllegalArgumentException.class, () -> bookService.searchText("title", null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.searchText("title", null, BookServiceImpl.MAX_TEXT_RESULTS + 1));
+        verifyNoInteractions(bookRepository);
     }
     @Test
     void updateBook_whenUpdateDataIsNull_shouldThrowRuntimeException() {
         String id = "mock-id";
-        Book existingBook = new Book(title, author, description, true);
-
-        when(bookRepository.findById(id)).thenReturn(Optional.of(existingBook));
 
         RuntimeException ex = assertThrows(
                 RuntimeException.class,
@@ -135,66 +287,129 @@ public class BookServiceImplTest {
         );
 
         assertEquals("No update data provided", ex.getMessage());
-        verify(bookRepository).findById(id);
-        verify(bookRepository, never()).save(any());
+        verifyNoInteractions(bookRepository);
     }
     @Test
-    void testUpdateBook_whenValidPartialDTO_shouldUpdateAndSaveBook() {
+    void testUpdateBook_whenValidPartialDTO_shouldSetOnlyGivenFieldsAtomically() {
         String id = "mock-id";
         Book existingBook = new Book(title, author, description, true);
+        existingBook.setId(id);
         PartialDTO updates = new PartialDTO();
         updates.setTitle("New Title");
+        updates.setAvailable(false);
 
-        when(bookRepository.findById(id)).thenReturn(Optional.of(existingBook));
-        when(bookRepository.save(any(Book.class))).thenReturn(existingBook);
+        when(bookRepository.findAndSet(id, Map.of("title", "New Title", "available", false)))
+                .thenReturn(existingBook);
 
         String result = bookService.updateBook(id, updates);
 
         assertTrue(result.contains("Book details updated"));
-        assertEquals("New Title", existingBook.getTitle());
-        verify(bookRepository).save(existingBook);
+        verify(bookRepository, never()).findById(any());
+        verify(bookRepository, never()).save(any());
+
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(title, event.getValue().getBefore().getTitle());
+        assertEquals("New Title", event.getValue().getAfter().getTitle());
+        assertFalse(event.getValue().getAfter().isAvailable());
+        assertEquals(author, event.getValue().getAfter().getAuthor());
+    }
+    @Test
+    void testUpdateBook_whenBookNotFound_shouldThrowBookNotFoundException() {
+        String id = "missing-id";
+        PartialDTO updates = new PartialDTO();
+        updates.setAvailable(true);
+
+        when(bookRepository.findAndSet(id, Map.of("available", true))).thenReturn(null);
+
+        assertThrows(
+                BookNotFoundException.class,
+                () -> bookService.updateBook(id, updates)
+        );
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    @Test
+    void testUpdateBook_whenNoFieldsGiven_shouldOnlyCheckExistence() {
+        String id = "mock-id";
+        when(bookRepository.existsById(id)).thenReturn(true);
+
+        assertEquals("Book details updated", bookService.updateBook(id, new PartialDTO()));
+        verify(bookRepository, never()).findAndSet(any(), any());
     }
     @Test
     void testUpdateBook_whenTitleIsEmpty_shouldThrowIllegalArgumentException() {
         String id = "mock-id";
-        Book existingBook = new Book(title, author, description, true);
         PartialDTO updates = new PartialDTO();
         updates.setTitle(" ");
 
-        when(bookRepository.findById(id)).thenReturn(Optional.of(existingBook));
-
         IllegalArgumentException ex = assertThrows(
           IllegalArgumentException.class,
                 () -> bookService.updateBook(id, updates)
         );
 
         assertEquals("Title cannot be blank", ex.getMessage());
-        verify(bookRepository, never()).save(any());
+        verify(bookRepository, never()).findAndSet(any(), any());
     }
     @Test
-    void testDeleteBook_whenBookNotFound_shouldThrowRuntimeException() {
+    void testDeleteBook_whenBookNotFound_shouldThrowBookNotFoundException() {
         String id = "missing-id";
 
-        when(bookRepository.findById(id)).thenReturn(Optional.empty());
+        when(bookRepository.findAndDelete(id)).thenReturn(null);
 
-        RuntimeException ex = assertThrows(
-                RuntimeException.class,
+        BookNotFoundException ex = assertThrows(
+                BookNotFoundException.class,
                 () -> bookService.deleteBook(id)
         );
 
         assertEquals("Book not found with id: "+ id, ex.getMessage());
-        verify(bookRepository, never()).delete((any()));
+        assertEquals(0, ex.getStackTrace().length);
+        verify(eventPublisher, never()).publishEvent(any());
     }
     @Test
     void testDeleteBook_whenValidId_shouldDeleteBook() {
         String id = "mock-id";
         Book existingBook = new Book(title, author, description, true);
 
-        when(bookRepository.findById(id)).thenReturn(Optional.of(existingBook));
+        when(bookRepository.findAndDelete(id)).thenReturn(existingBook);
 
         String result = bookService.deleteBook(id);
 
         assertTrue(result.contains("Book with id " + id + " deleted"));
-        verify(bookRepository).delete(existingBook);
+        verify(bookRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+    @Test
+    void testUpdateBook_whenSameBookWrittenConcurrently_shouldPublishInWriteOrder() throws Exception {
+        String id = "mock-id";
+        Book existingBook = new Book(title, author, description, true);
+        existingBook.setId(id);
+        PartialDTO updates = new PartialDTO();
+        updates.setTitle("New Title");
+        CountDownLatch firstWriting = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        when(bookRepository.findAndSet(eq(id), any())).thenAnswer(invocation -> {
+            if (firstWriting.getCount() > 0) {
+                firstWriting.countDown();
+                releaseFirst.await();
+            }
+            return existingBook;
+        });
+        when(bookRepository.findAndDelete(id)).thenReturn(existingBook);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> bookService.updateBook(id, updates));
+        assertTrue(firstWriting.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> bookService.deleteBook(id));
+
+        Thread.sleep(100);
+        verify(bookRepository, never()).findAndDelete(id);
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<BookChangedEvent> events = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertNotNull(events.getAllValues().get(0).getAfter());
+        assertNull(events.getAllValues().get(1).getAfter());
     }
 }
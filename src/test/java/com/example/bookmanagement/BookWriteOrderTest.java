@@ -0,0 +1,84 @@
+package com.example.bookmanagement;
+
+import com.example.bookmanagement.service.impl.BookWriteOrder;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookWriteOrderTest {
+    private final BookWriteOrder writeOrder = new BookWriteOrder();
+    private final Queue<String> applied = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void testInOrder_whenSameBookWrittenReactively_shouldStartNextWriteAfterPreviousCompletes() throws Exception {
+        Sinks.One<String> firstWrite = Sinks.one();
+        CompletableFuture<String> first = writeOrder.inOrder("book-1", firstWrite.asMono()
+                .doOnNext(applied::add)).toFuture();
+        CompletableFuture<String> second = writeOrder.inOrder("book-1", Mono.fromCallable(() -> record("second")))
+                .toFuture();
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(
+                () -> writeOrder.inOrder("book-1", () -> record("blocking")));
+
+        Thread.sleep(100);
+        assertTrue(applied.isEmpty());
+        firstWrite.tryEmitValue("first");
+
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        assertEquals("blocking", blocking.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second", "blocking"), List.copyOf(applied));
+    }
+    @Test
+    void testInOrder_whenWaitingWriteIsCancelled_shouldStillOrderLaterWritesAfterRunningOne() throws Exception {
+        Sinks.One<String> firstWrite = Sinks.one();
+        CompletableFuture<String> first = writeOrder.inOrder("book-1", firstWrite.asMono()
+                .doOnNext(applied::add)).toFuture();
+        Disposable cancelled = writeOrder.inOrder("book-1", Mono.fromCallable(() -> record("cancelled"))).subscribe();
+        CompletableFuture<String> third = writeOrder.inOrder("book-1", Mono.fromCallable(() -> record("third")))
+                .toFuture();
+
+        cancelled.dispose();
+        Thread.sleep(100);
+        assertTrue(applied.isEmpty());
+        firstWrite.tryEmitValue("first");
+
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("third", third.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "third"), List.copyOf(applied));
+    }
+    @Test
+    void testInOrder_whenWriteFails_shouldLetNextWriteRun() {
+        Mono<String> failing = writeOrder.inOrder("book-1", Mono.error(new IllegalStateException("Mongo is down")));
+
+        assertThrows(IllegalStateException.class, () -> failing.block(Duration.ofSeconds(5)));
+        assertThrows(IllegalStateException.class, () -> writeOrder.inOrder("book-1", () -> {
+            throw new IllegalStateException("Mongo is down");
+        }));
+        assertEquals("next", writeOrder.inOrder("book-1", Mono.fromCallable(() -> record("next")))
+                .block(Duration.ofSeconds(5)));
+    }
+    @Test
+    void testInOrder_withDifferentBooks_shouldNotWaitForEachOther() {
+        Sinks.One<String> blocked = Sinks.one();
+        writeOrder.inOrder("book-1", blocked.asMono()).subscribe();
+
+        // Ids that differ only in their last character always fall in different stripes.
+        assertEquals("other", writeOrder.inOrder("book-2", () -> record("other")));
+        blocked.tryEmitValue("done");
+    }
+
+    private String record(String write) {
+        applied.add(write);
+        return write;
+    }
+}
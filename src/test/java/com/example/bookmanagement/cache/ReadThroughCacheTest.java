@@ -0,0 +1,52 @@
+package com.example.bookmanagement.cache;
+
+import com.example.bookmanagement.config.CacheConfig;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadThroughCacheTest {
+    private Cache searchCache;
+    private SearchCacheInvalidator invalidator;
+    private ReadThroughCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager =
+                new CaffeineCacheManager(CacheConfig.BOOK_SEARCH_CACHE, CacheConfig.AVAILABLE_TITLES_CACHE);
+        searchCache = cacheManager.getCache(CacheConfig.BOOK_SEARCH_CACHE);
+        invalidator = new SearchCacheInvalidator(cacheManager);
+        cache = new ReadThroughCache(cacheManager, invalidator);
+    }
+
+    @Test
+    void testGet_whenMissed_shouldCacheResult() {
+        BookSearchKey key = BookSearchKey.of("clean", null, null);
+
+        assertEquals(List.of("first"), cache.get(CacheConfig.BOOK_SEARCH_CACHE, key, () -> List.of("first")));
+        assertEquals(List.of("first"), cache.get(CacheConfig.BOOK_SEARCH_CACHE, key, () -> List.of("second")));
+    }
+    @Test
+    void testGet_whenInvalidatedWhileQuerying_shouldReturnResultWithoutCachingIt() {
+        BookSearchKey key = BookSearchKey.of("clean", null, null);
+        Book book = new Book("Clean Code", "Robert C. Martin", null, true);
+
+        List<String> result = cache.get(CacheConfig.BOOK_SEARCH_CACHE, key, () -> {
+            // The write lands after the query read the catalog but before its result is stored.
+            invalidator.onBookChanged(BookChangedEvent.created(book));
+            return List.of("before the write");
+        });
+
+        assertEquals(List.of("before the write"), result);
+        assertNull(searchCache.get(key));
+        assertEquals(List.of("after the write"),
+                cache.get(CacheConfig.BOOK_SEARCH_CACHE, key, () -> List.of("after the write")));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bookmanagement.cache;
+
+import com.example.bookmanagement.config.CacheConfig;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.event.CatalogReloadedEvent;
+import com.example.bookmanagement.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchCacheInvalidatorTest {
+    private Cache searchCache;
+    private Cache titlesCache;
+    private SearchCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager =
+                new CaffeineCacheManager(CacheConfig.BOOK_SEARCH_CACHE, CacheConfig.AVAILABLE_TITLES_CACHE);
+        searchCache = cacheManager.getCache(CacheConfig.BOOK_SEARCH_CACHE);
+        titlesCache = cacheManager.getCache(CacheConfig.AVAILABLE_TITLES_CACHE);
+        invalidator = new SearchCacheInvalidator(cacheManager);
+
+        searchCache.put(BookSearchKey.of("Clean", null, null), List.of());
+        searchCache.put(BookSearchKey.of(null, "fowler", null), List.of());
+        searchCache.put(BookSearchKey.of(null, null, false), List.of());
+        searchCache.put(BookSearchKey.of(null, null, null), List.of());
+        titlesCache.put(SimpleKey.EMPTY, List.of());
+    }
+
+    @Test
+    void testOf_shouldIgnoreCaseOfTerms() {
+        assertEquals(BookSearchKey.of("CLEAN", "Martin", true), BookSearchKey.of("clean", "martin", true));
+        assertNotEquals(BookSearchKey.of("clean", null, true), BookSearchKey.of("clean", null, null));
+    }
+    @Test
+    void testOnBookChanged_whenBookCreated_shouldEvictOnlyMatchingSearches() {
+        invalidator.onBookChanged(BookChangedEvent.created(book("clean code", "Robert C. Martin", true)));
+
+        assertNull(searchCache.get(BookSearchKey.of("clean", null, null)));
+        assertNull(searchCache.get(BookSearchKey.of(null, null, null)));
+        assertNotNull(searchCache.get(BookSearchKey.of(null, "fowler", null)));
+        assertNotNull(searchCache.get(BookSearchKey.of(null, null, false)));
+        assertNull(titlesCache.get(SimpleKey.EMPTY));
+    }
+    @Test
+    void testOnBookChanged_whenUpdated_shouldEvictSearchesMatchingEitherVersion() {
+        invalidator.onBookChanged(BookChangedEvent.updated(
+                book("Refactoring", "Martin Fowler", false),
+                book("Refactoring", "Martin Fowler", false)));
+
+        assertNull(searchCache.get(BookSearchKey.of(null, "fowler", null)));
+        assertNull(searchCache.get(BookSearchKey.of(null, null, false)));
+        assertNotNull(searchCache.get(BookSearchKey.of("clean", null, null)));
+        assertNotNull(titlesCache.get(SimpleKey.EMPTY));
+    }
+    @Test
+    void testOnCatalogReloaded_shouldClearEverySearch() {
+        long invalidations = invalidator.invalidations();
+
+        invalidator.onCatalogReloaded(new CatalogReloadedEvent());
+
+        assertNull(searchCache.get(BookSearchKey.of(null, "fowler", null)));
+        assertNull(searchCache.get(BookSearchKey.of(null, null, false)));
+        assertNull(titlesCache.get(SimpleKey.EMPTY));
+        assertEquals(invalidations + 1, invalidator.invalidations());
+    }
+
+    private static Book book(String title, String author, boolean available) {
+        return new Book(title, author, null, available);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.bookmanagement.cache;
+
+import com.example.bookmanagement.cache.SingleFlight.Operation;
+import com.example.bookmanagement.config.CacheConfig;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CaffeineCacheManager cacheManager =
+            new CaffeineCacheManager(CacheConfig.BOOK_SEARCH_CACHE, CacheConfig.AVAILABLE_TITLES_CACHE);
+    private final SearchCacheInvalidator invalidator = new SearchCacheInvalidator(cacheManager);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger queries = new AtomicInteger();
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight(true, invalidator, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testExecute_whenSameKeyIsRunning_shouldShareOneQuery() throws Exception {
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(callers.submit(() -> singleFlight.execute(Operation.SEARCH, "clean", blockingQuery(List.of("Clean Code")))));
+        }
+        awaitCount("coalesced", 4);
+        release.countDown();
+
+        for (Future<List<String>> result : results) {
+            assertEquals(List.of("Clean Code"), result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+        assertEquals(1, count("executed"));
+    }
+    @Test
+    void testExecute_withDifferentKeys_shouldRunEachQuery() throws Exception {
+        Future<String> clean = callers.submit(() -> singleFlight.execute(Operation.SEARCH, "clean", blockingQuery("clean")));
+        awaitCount("executed", 1);
+
+        assertEquals("code", singleFlight.execute(Operation.SEARCH, "code", () -> "code"));
+        release.countDown();
+        assertEquals("clean", clean.get(5, TimeUnit.SECONDS));
+        assertEquals(0, count("coalesced"));
+    }
+    @Test
+    void testExecute_afterWrite_shouldNotJoinQueryStartedBefore() throws Exception {
+        Future<String> before = callers.submit(() -> singleFlight.execute(Operation.CHECK, "available", blockingQuery("before")));
+        awaitCount("executed", 1);
+
+        invalidator.onBookChanged(BookChangedEvent.created(new Book("Clean Code", "Robert C. Martin", null, true)));
+
+        assertEquals("after", singleFlight.execute(Operation.CHECK, "available", () -> "after"));
+        release.countDown();
+        assertEquals("before", before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, count("executed"));
+    }
+    @Test
+    void testExecute_whenSearchMissesBeforeVersionIsBumped_shouldNotCacheResultReadBeforeWrite() throws Exception {
+        ReadThroughCache cache = new ReadThroughCache(cacheManager, invalidator);
+        BookSearchKey key = BookSearchKey.of("clean", null, null);
+        Future<List<String>> before = callers.submit(() -> cache.get(CacheConfig.BOOK_SEARCH_CACHE, key,
+                () -> singleFlight.execute(Operation.SEARCH, key, blockingQuery(List.of("Clean Code")))));
+        awaitCount("executed", 1);
+
+        // The write's listeners run in order: the caches are invalidated, then a search misses, then the version moves.
+        BookChangedEvent write = BookChangedEvent.created(new Book("Clean Code, 2nd Edition", "Robert C. Martin", null, true));
+        invalidator.onBookChanged(write);
+        List<String> during = cache.get(CacheConfig.BOOK_SEARCH_CACHE, key,
+                () -> singleFlight.execute(Operation.SEARCH, key, () -> List.of("Clean Code", "Clean Code, 2nd Edition")));
+        catalogVersion.onBookChanged(write);
+        release.countDown();
+
+        assertEquals(List.of("Clean Code"), before.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Clean Code", "Clean Code, 2nd Edition"), during);
+        assertEquals(during, cache.get(CacheConfig.BOOK_SEARCH_CACHE, key, () -> List.of("uncached")));
+        assertEquals(2, count("executed"));
+        assertEquals(0, count("coalesced"));
+    }
+    @Test
+    void testExecute_whenQueryFails_shouldThrowToEveryCaller() throws Exception {
+        Supplier<String> failing = () -> {
+            awaitRelease();
+            throw new IllegalStateException("Mongo is down");
+        };
+        Future<String> first = callers.submit(() -> singleFlight.execute(Operation.SEARCH, "clean", failing));
+        awaitCount("executed", 1);
+        Future<String> joined = callers.submit(() -> singleFlight.execute(Operation.SEARCH, "clean", failing));
+        awaitCount("coalesced", 1);
+        release.countDown();
+
+        for (Future<String> result : List.of(first, joined)) {
+            Exception ex = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, ex.getCause());
+        }
+        // Nothing is kept, so the next call queries again.
+        assertEquals("ok", singleFlight.execute(Operation.SEARCH, "clean", () -> "ok"));
+    }
+    @Test
+    void testExecute_whenDisabled_shouldAlwaysQuery() {
+        SimpleMeterRegistry disabledRegistry = new SimpleMeterRegistry();
+        SingleFlight disabled = new SingleFlight(false, invalidator, disabledRegistry);
+
+        assertEquals("clean", disabled.execute(Operation.SEARCH, "clean", () -> "clean"));
+        assertNull(disabledRegistry.find(SingleFlight.METRIC_NAME).counter());
+    }
+
+    private <T> Supplier<T> blockingQuery(T result) {
+        return () -> {
+            queries.incrementAndGet();
+            awaitRelease();
+            return result;
+        };
+    }
+
+    private void awaitRelease() {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, count(outcome));
+    }
+
+    private double count(String outcome) {
+        return registry.find(SingleFlight.METRIC_NAME).tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bookmanagement.config;
+
+import com.example.bookmanagement.model.Book;
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BookIndexInitializerTest {
+
+    @Test
+    void testUsesCollectionScan_whenWinningPlanIsIndexScan_shouldReturnFalse() {
+        Document explain = Document.parse("""
+                {
+                  "queryPlanner": {
+                    "winningPlan": {
+                      "stage": "FETCH",
+                      "inputStage": { "stage": "IXSCAN", "indexName": "available_title" }
+                    },
+                    "rejectedPlans": [ { "stage": "COLLSCAN" } ]
+                  }
+                }
+                """);
+
+        assertFalse(BookIndexInitializer.usesCollectionScan(explain));
+    }
+    @Test
+    void testUsesCollectionScan_whenNestedStageIsCollectionScan_shouldReturnTrue() {
+        Document explain = Document.parse("""
+                {
+                  "queryPlanner": {
+                    "winningPlan": {
+                      "queryPlan": {
+                        "stage": "SUBPLAN",
+                        "inputStages": [ { "stage": "IXSCAN" }, { "stage": "COLLSCAN" } ]
+                      }
+                    }
+                  }
+                }
+                """);
+
+        assertTrue(BookIndexInitializer.usesCollectionScan(explain));
+    }
+    @Test
+    void testRun_whenExplainIsNotAllowed_shouldLogAndStart() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Book.class)).thenReturn("books");
+        when(mongoTemplate.getCollection("books")).thenThrow(new MongoException(13, "not authorized to execute explain"));
+        BookIndexInitializer initializer = new BookIndexInitializer(mongoTemplate, new MongoMappingContext(), false, true, false);
+
+        assertDoesNotThrow(() -> initializer.run(null));
+    }
+    @Test
+    void testRun_whenRetiredIndexesExist_shouldDropOnlyThose() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Book.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                new IndexInfo(List.of(), "_id_", true, false, ""),
+                new IndexInfo(List.of(), "title", false, false, ""),
+                new IndexInfo(List.of(), "available_title", false, false, "")));
+        BookIndexInitializer initializer = new BookIndexInitializer(mongoTemplate, new MongoMappingContext(), true, false, false);
+
+        initializer.run(null);
+
+        verify(indexOps).dropIndex("title");
+        verify(indexOps, never()).dropIndex("available_title");
+        verify(indexOps, never()).dropIndex("_id_");
+    }
+    @Test
+    void testQueryShapes_shouldFilterEveryShapeOnAvailabilityAndProjectTitlesOnly() {
+        BookIndexInitializer.queryShapes().values().forEach(query ->
+                assertTrue(query.getQueryObject().containsKey("available")));
+        assertEquals(new Document("title", 1).append("_id", 0),
+                BookIndexInitializer.queryShapes().get("available titles").getFieldsObject());
+    }
+}
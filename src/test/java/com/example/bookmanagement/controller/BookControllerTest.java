@@ -1,28 +1,60 @@
 package com.example.bookmanagement.controller;
 
+import com.example.bookmanagement.cache.CatalogVersion;
+import com.example.bookmanagement.dto.AuthorCount;
 import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.dto.BookSearchHit;
+import com.example.bookmanagement.dto.BookSuggestions;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.BulkItemResult;
+import com.example.bookmanagement.dto.CatalogStats;
+import com.example.bookmanagement.dto.BookFormat;
+import com.example.bookmanagement.dto.ImportResult;
+import com.example.bookmanagement.service.BookBulkService;
 import com.example.bookmanagement.dto.PartialDTO;
+import com.example.bookmanagement.dto.Suggestion;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.exception.BookNotFoundException;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.search.SuggestionIndex;
+import com.example.bookmanagement.service.BookExportService;
+import com.example.bookmanagement.service.BookImportService;
 import com.example.bookmanagement.service.BookService;
+import com.example.bookmanagement.stats.CatalogStatistics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookController.class)
+@Import(CatalogVersion.class)
 public class BookControllerTest {
 
     @Autowired
@@ -31,9 +63,27 @@ public class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookBulkService bookBulkService;
+
+    @MockBean
+    private BookExportService bookExportService;
+
+    @MockBean
+    private BookImportService bookImportService;
+
+    @MockBean
+    private CatalogStatistics catalogStatistics;
+
+    @MockBean
+    private SuggestionIndex suggestionIndex;
+
     @Autowired
     private ObjectMapper objectMapper; // To convert DTO to JSON
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     private BookDTO bookDTO;
 
     @BeforeEach
@@ -54,6 +104,24 @@ public class BookControllerTest {
                 .andExpect(content().string("Book created with id: mock-id"));
     }
 
+    @Test
+    void testCreateBook_whenIdIsGiven_shouldIgnoreIt() throws Exception {
+        when(bookService.createBook(any(BookDTO.class)))
+                .thenReturn("Book created with id: mock-id");
+
+        mockMvc.perform(post("/api/books/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"id": "client-id", "title": "Test Title", "author": "Test Author", "available": true}
+                                """))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<BookDTO> created = ArgumentCaptor.forClass(BookDTO.class);
+        verify(bookService).createBook(created.capture());
+        assertNull(created.getValue().id());
+        assertEquals("Test Title", created.getValue().title());
+    }
+
     @Test
     void testCreateBook_whenInvalidInputs_shouldReturnBadRequest() throws Exception {
         List<String> invalidJsonBodies = List.of(
@@ -146,11 +214,55 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$.message").value(containsString("Description cannot exceed 300 characters")));
     }
     @Test
+    void testCreateBooks_shouldReturnResultPerItem() throws Exception {
+        when(bookBulkService.createBooks(any())).thenAnswer(invocation -> {
+            Iterator<BookDTO> books = invocation.getArgument(0);
+            List<BulkItemResult> items = new ArrayList<>();
+            while (books.hasNext()) {
+                BookDTO book = books.next();
+                items.add(BulkItemResult.created(items.size(), "id-" + book.title()));
+            }
+            return new BulkCreateResult(items);
+        });
+
+        mockMvc.perform(post("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookDTO, bookDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.items[1].id").value("id-Test Title"));
+
+        mockMvc.perform(post("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(bookDTO) + "\n"
+                                + objectMapper.writeValueAsString(new BookDTO("Second", "A", null, true)) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.items[1].id").value("id-Second"));
+    }
+    @Test
+    void testImportBooks_shouldReturnCountsAndRejectedRows() throws Exception {
+        when(bookImportService.importBooks(any(), eq(BookFormat.CSV))).thenReturn(new ImportResult(
+                2, 1, 1, 10, 200, List.of(BulkItemResult.failed(1, "title: must not be blank"))));
+
+        mockMvc.perform(post("/api/books/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("title,author\r\nClean Code,Robert C. Martin\r\n,Nobody\r\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rowsPerSecond").value(200))
+                .andExpect(jsonPath("$.rejections[0].index").value(1));
+    }
+    @Test
     void testGetAllBooks_shouldReturnListOfBooks() throws Exception {
-        when(bookService.searchBooks(null, null, null)).thenReturn(List.of(bookDTO));
+        when(bookService.searchBooks(null, null, null))
+                .thenReturn(List.of(new BookDTO("book-1", "Test Title", "Test Author", "Test Desc", true)));
 
         mockMvc.perform(get("/api/books/search"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("book-1"))
                 .andExpect(jsonPath("$[0].title").value("Test Title"))
                 .andExpect(jsonPath("$[0].author").value("Test Author"))
                 .andExpect(jsonPath("$[0].description").value("Test Desc"))
@@ -207,6 +319,168 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$[0].available").value(true));
     }
     @Test
+    void testsearchBooks_whenLimitIsGiven_shouldReturnPageAndNextCursor() throws Exception {
+        when(bookService.searchBooks(null, "Test Author", null, null, 1))
+                .thenReturn(new BookPage(List.of(bookDTO), "next-cursor"));
+
+        mockMvc.perform(get("/api/books/search")
+                        .param("author", "Test Author")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-cursor"))
+                .andExpect(jsonPath("$[0].title").value("Test Title"));
+    }
+    @Test
+    void testsearchBooks_whenLastPage_shouldNotReturnNextCursor() throws Exception {
+        when(bookService.searchBooks(null, null, null, "cursor", 50))
+                .thenReturn(new BookPage(List.of(bookDTO), null));
+
+        mockMvc.perform(get("/api/books/search")
+                        .param("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].title").value("Test Title"));
+    }
+    @Test
+    void testsearchBooks_whenNdjsonAccepted_shouldStreamOneBookPerLine() throws Exception {
+        BookDTO other = new BookDTO("Other Title", "Other Author", "Other Desc", false);
+        when(bookService.streamBooks(null, null, true)).thenReturn(Stream.of(bookDTO, other));
+
+        MvcResult result = mockMvc.perform(get("/api/books/search")
+                        .param("available", "true")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(bookDTO) + "\n" + objectMapper.writeValueAsString(other) + "\n"));
+    }
+    @Test
+    void testsearchBooks_whenJsonAccepted_shouldReturnArray() throws Exception {
+        when(bookService.searchBooks(null, null, null)).thenReturn(List.of(bookDTO));
+
+        mockMvc.perform(get("/api/books/search")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Title"));
+    }
+    @Test
+    void testExportBooks_shouldStreamCsvAttachment() throws Exception {
+        when(bookExportService.export(BookFormat.CSV, "65a1b2c3d4e5f60718293a4b")).thenReturn(out -> {
+            out.write("id,title\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/books/export")
+                        .param("format", "csv")
+                        .param("after", "65a1b2c3d4e5f60718293a4b"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BookController.TEXT_CSV))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.csv\""))
+                .andExpect(header().string(HttpHeaders.TRAILER, BookController.BOOK_COUNT_TRAILER))
+                .andExpect(content().string("id,title\r\n"));
+    }
+    @Test
+    void testExportBooks_whenFormatIsUnknown_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verify(bookExportService, times(0)).export(any(), any());
+    }
+    @Test
+    void testSearchText_shouldReturnHitsWithScores() throws Exception {
+        when(bookService.searchText("clean code", null, 20)).thenReturn(List.of(
+                new BookSearchHit("1", "Clean Code", "Robert C. Martin", "Desc", true, 3.2),
+                new BookSearchHit("2", "Code Complete", "Steve McConnell", "Desc", true, 1.1)));
+
+        mockMvc.perform(get("/api/books/search/text").param("q", "clean code"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("1"))
+                .andExpect(jsonPath("$[0].score").value(3.2))
+                .andExpect(jsonPath("$[1].title").value("Code Complete"));
+    }
+    @Test
+    void testSuggest_shouldReturnTitleAndAuthorCompletions() throws Exception {
+        when(suggestionIndex.isReady()).thenReturn(true);
+        when(suggestionIndex.suggest("mar", 10)).thenReturn(new BookSuggestions(
+                List.of(new Suggestion("Mars Attacks", 1)), List.of(new Suggestion("Martin Fowler", 4))));
+
+        mockMvc.perform(get("/api/books/suggest").param("prefix", "mar"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag()))
+                .andExpect(jsonPath("$.titles[0].text").value("Mars Attacks"))
+                .andExpect(jsonPath("$.authors[0].books").value(4));
+    }
+    @Test
+    void testSuggest_whenIndexIsLoading_shouldAnswerWithoutETag() throws Exception {
+        when(suggestionIndex.isReady()).thenReturn(false);
+        when(suggestionIndex.suggest("mar", 10)).thenReturn(new BookSuggestions(List.of(), List.of()));
+
+        mockMvc.perform(get("/api/books/suggest").param("prefix", "mar")
+                        .header(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.titles").isEmpty());
+    }
+    @Test
+    void testsearchBooks_whenETagMatches_shouldReturnNotModifiedWithoutSearching() throws Exception {
+        when(bookService.searchBooks(null, null, true)).thenReturn(List.of(bookDTO));
+
+        String etag = mockMvc.perform(get("/api/books/search").param("available", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/books/search").param("available", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookService, times(1)).searchBooks(null, null, true);
+    }
+    @Test
+    void testGetAvailableBookTitles_afterWrite_shouldReturnNewETag() throws Exception {
+        when(bookService.getAvailableBookTitles()).thenReturn(List.of("Test Title"));
+        String etag = catalogVersion.etag();
+
+        mockMvc.perform(get("/api/books/check").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        catalogVersion.onBookChanged(BookChangedEvent.created(new Book("New", "Author", "Desc", true)));
+
+        mockMvc.perform(get("/api/books/check").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag()))
+                .andExpect(jsonPath("$[0]").value("Test Title"));
+    }
+    @Test
+    void testGetStatistics_shouldReturnCountsAndTopAuthors() throws Exception {
+        when(catalogStatistics.getStats(2)).thenReturn(new CatalogStats(5, 3, 2,
+                List.of(new AuthorCount("Author A", 3, 2), new AuthorCount("Author B", 2, 1))));
+
+        mockMvc.perform(get("/api/books/stats").param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.unavailable").value(2))
+                .andExpect(jsonPath("$.topAuthors[0].author").value("Author A"))
+                .andExpect(jsonPath("$.topAuthors[1].books").value(2));
+    }
+    @Test
+    void testGetStatistics_whenTopOutOfRange_shouldReturnBadRequest() throws Exception {
+        when(catalogStatistics.getStats(1000)).thenThrow(new IllegalArgumentException("Top must be between 0 and 100"));
+
+        mockMvc.perform(get("/api/books/stats").param("top", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+    @Test
     void testupdateBook_shouldUpdateBook() throws Exception {
         PartialDTO updates = new PartialDTO();
         updates.setTitle("New Test Title");
@@ -229,4 +503,13 @@ public class BookControllerTest {
                         .content(objectMapper.writeValueAsString(new PartialDTO())))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+    @Test
+    void testdeleteBook_whenBookNotFound_shouldReturnNotFound() throws Exception {
+        when(bookService.deleteBook("missing-id")).thenThrow(new BookNotFoundException("missing-id"));
+
+        mockMvc.perform(delete("/api/books/{id}", "missing-id"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("Book not found with id: missing-id"));
+    }
+}
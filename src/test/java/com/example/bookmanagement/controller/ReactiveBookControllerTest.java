@@ -0,0 +1,155 @@
+package com.example.bookmanagement.controller;
+
+import com.example.bookmanagement.cache.CatalogVersion;
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BookPage;
+import com.example.bookmanagement.exception.BookNotFoundException;
+import com.example.bookmanagement.search.SuggestionIndex;
+import com.example.bookmanagement.service.ReactiveBookService;
+import com.example.bookmanagement.stats.CatalogStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveBookController.class)
+@ActiveProfiles("reactive")
+@Import(CatalogVersion.class)
+public class ReactiveBookControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveBookService bookService;
+
+    @MockBean
+    private CatalogStatistics catalogStatistics;
+
+    @MockBean
+    private SuggestionIndex suggestionIndex;
+
+    private BookDTO bookDTO;
+
+    @BeforeEach
+    void setUp() {
+        bookDTO = new BookDTO("Test Title", "Test Author", "Test Desc", true);
+    }
+
+    @Test
+    void testCreateBook_shouldReturnSuccessMessage() {
+        when(bookService.createBook(any(BookDTO.class))).thenReturn(Mono.just("Book created with id: mock-id"));
+
+        webTestClient.post().uri("/api/books/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Book created with id: mock-id");
+    }
+    @Test
+    void testCreateBook_whenTitleIsBlank_shouldReturnBadRequest() {
+        webTestClient.post().uri("/api/books/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookDTO("", "Author", null, true))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").exists();
+
+        verify(bookService, never()).createBook(any());
+    }
+    @Test
+    void testsearchBooks_shouldReturnBooks() {
+        when(bookService.searchBooks(null, "Test Author", null)).thenReturn(Flux.just(bookDTO));
+
+        webTestClient.get().uri("/api/books/search?author=Test Author")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo("Test Title")
+                .jsonPath("$[0].available").isEqualTo(true);
+    }
+    @Test
+    void testsearchBooks_whenNdjsonAccepted_shouldStreamBooks() {
+        when(bookService.searchBooks(null, null, true)).thenReturn(Flux.just(bookDTO, bookDTO));
+
+        webTestClient.get().uri("/api/books/search?available=true")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookDTO.class).hasSize(2);
+    }
+    @Test
+    void testsearchBooks_whenLimitIsGiven_shouldReturnNextCursor() {
+        when(bookService.searchBooks(null, null, null, null, 1))
+                .thenReturn(Mono.just(new BookPage(List.of(bookDTO), "next-cursor")));
+
+        webTestClient.get().uri("/api/books/search?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "next-cursor")
+                .expectBody().jsonPath("$[0].title").isEqualTo("Test Title");
+    }
+    @Test
+    void testsearchBooks_whenETagMatches_shouldReturnNotModifiedWithoutSearching() {
+        when(bookService.searchBooks(null, null, true)).thenReturn(Flux.just(bookDTO));
+
+        String etag = webTestClient.get().uri("/api/books/search?available=true")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BookDTO.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/books/search?available=true")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        verify(bookService, times(1)).searchBooks(null, null, true);
+    }
+    @Test
+    void testExportBooks_shouldStreamNdjsonOrCsv() {
+        BookDTO book = new BookDTO("65f0c0ffee0000000000000a", "Title, Second", "Author", null, true);
+        when(bookService.exportBooks(null)).thenReturn(Flux.just(book));
+        when(bookService.exportCsv(null)).thenReturn(Flux.just("id,title\r\n", "row\r\n"));
+
+        webTestClient.get().uri("/api/books/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).value(body -> body.startsWith("{\"id\":\"65f0c0ffee0000000000000a\""));
+        webTestClient.get().uri("/api/books/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+                .expectHeader().valueMatches(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.csv\"")
+                .expectBody(String.class).isEqualTo("id,title\r\nrow\r\n");
+    }
+    @Test
+    void testdeleteBook_whenBookNotFound_shouldReturnNotFound() {
+        when(bookService.deleteBook("missing-id")).thenReturn(Mono.error(new BookNotFoundException("missing-id")));
+
+        webTestClient.delete().uri("/api/books/{id}", "missing-id")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Book not found with id: missing-id");
+    }
+}
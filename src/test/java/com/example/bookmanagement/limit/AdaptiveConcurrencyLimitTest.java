@@ -0,0 +1,89 @@
+package com.example.bookmanagement.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimitTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void testTryAcquire_whenLimitReached_shouldRejectWithoutBlocking() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("read", 2, 1, 10, BUDGET);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+        assertEquals(1, limit.getRejected());
+
+        limit.release();
+        assertTrue(limit.tryAcquire());
+    }
+    @Test
+    void testRelease_whenLatencyIsSteadyAndLimitIsUsed_shouldRaiseLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("read", 10, 1, 100, BUDGET);
+
+        runAtLimit(limit, FAST, 50);
+
+        assertTrue(limit.getLimit() > 20, "limit was " + limit.getLimit());
+        assertTrue(limit.getLimit() <= 100);
+    }
+    @Test
+    void testRelease_whenLatencyRises_shouldLowerLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("read", 50, 5, 100, BUDGET);
+        runAtLimit(limit, FAST, 200);
+        int settled = limit.getLimit();
+
+        runAtLimit(limit, SLOW, 10);
+        assertTrue(limit.getLimit() < settled, limit.getLimit() + " is not below " + settled);
+    }
+    @Test
+    void testRelease_whenLatencyStaysOverBudget_shouldBackOffToMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("read", 50, 5, 100, BUDGET);
+
+        runAtLimit(limit, 2 * BUDGET, 50);
+        assertEquals(5, limit.getLimit());
+
+        // Once Mongo is back to normal the limit climbs again.
+        runAtLimit(limit, FAST, 50);
+        assertTrue(limit.getLimit() > 5);
+    }
+    @Test
+    void testRelease_whenMostlyIdle_shouldKeepLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("write", 20, 4, 100, BUDGET);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST);
+        }
+
+        assertEquals(20, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+    @Test
+    void testConstructor_whenBoundsAreInconsistent_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit("read", 5, 10, 20, BUDGET));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit("read", 30, 10, 20, BUDGET));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit("read", 1, 0, 20, BUDGET));
+    }
+
+    /**
+     * Fills every slot, then completes them all with the given latency, {@code rounds} times.
+     */
+    private static void runAtLimit(AdaptiveConcurrencyLimit limit, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+}
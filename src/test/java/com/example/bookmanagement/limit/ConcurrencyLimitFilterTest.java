@@ -0,0 +1,90 @@
+package com.example.bookmanagement.limit;
+
+import com.example.bookmanagement.dto.ConcurrencyLimitStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter(true, 1, 1, 1, 1, 1, 1, 1000, 2, objectMapper);
+    }
+
+    @Test
+    void testDoFilter_whenReadLimitIsReached_shouldShedWith503AndRetryAfter() throws Exception {
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        MockHttpServletResponse outer = perform("GET", "/api/books/search",
+                (request, response) -> nested.add(perform("GET", "/api/books/check", null)));
+
+        assertEquals(200, outer.getStatus());
+        MockHttpServletResponse rejected = nested.get(0);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(503, objectMapper.readTree(rejected.getContentAsString()).get("status").asInt());
+        assertEquals("/api/books/check", objectMapper.readTree(rejected.getContentAsString()).get("path").asText());
+
+        ConcurrencyLimitStatus read = filter.status().get(0);
+        assertEquals("read", read.route());
+        assertEquals(1, read.rejected());
+        assertEquals(0, read.inFlight());
+    }
+    @Test
+    void testDoFilter_shouldLimitReadsAndWritesSeparately() throws Exception {
+        List<Integer> nested = new ArrayList<>();
+        perform("GET", "/api/books/search", (request, response) -> {
+            nested.add(perform("POST", "/api/books/create", null).getStatus());
+            nested.add(perform("PATCH", "/api/books/1", (innerRequest, innerResponse) ->
+                    nested.add(perform("DELETE", "/api/books/2", null).getStatus())).getStatus());
+        });
+
+        assertEquals(List.of(200, 503, 200), nested);
+        assertEquals(0, filter.status().get(0).rejected());
+        assertEquals(1, filter.status().get(1).rejected());
+    }
+    @Test
+    void testDoFilter_shouldNotLimitBulkTransfersOrOtherPaths() throws Exception {
+        List<Integer> nested = new ArrayList<>();
+        perform("GET", "/api/books/search", (request, response) -> {
+            nested.add(perform("GET", "/api/books/export", null).getStatus());
+            nested.add(perform("GET", "/api/admin/concurrency-limits", null).getStatus());
+            nested.add(perform("GET", "/actuator/health", null).getStatus());
+        });
+
+        assertEquals(List.of(200, 200, 200), nested);
+    }
+    @Test
+    void testDoFilter_whenDisabled_shouldPassEverythingThrough() throws Exception {
+        filter = new ConcurrencyLimitFilter(false, 1, 1, 1, 1, 1, 1, 1000, 1, objectMapper);
+        List<Integer> nested = new ArrayList<>();
+        perform("GET", "/api/books/search", (request, response) ->
+                nested.add(perform("GET", "/api/books/search", null).getStatus()));
+
+        assertEquals(List.of(200), nested);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain != null ? chain : (req, res) -> {
+            });
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.bookmanagement.loadtest;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.dto.BulkCreateResult;
+import com.example.bookmanagement.dto.BulkItemResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mixed create/search/check/patch/delete workload at a fixed request rate against the
+ * running application, backed by an in-process Mongo server, and reports throughput and latency
+ * percentiles per endpoint. Latency is measured from the time a request was scheduled, so a
+ * slow server cannot hide its queueing by slowing the load generator down.
+ * <p>
+ * Run with {@code mvn -Ploadtest test}; tune with {@code -Dloadtest.catalogSize}, {@code -Dloadtest.rate}
+ * (requests per second), {@code -Dloadtest.warmupSeconds}, {@code -Dloadtest.durationSeconds} and
+ * {@code -Dloadtest.mix} (e.g. {@code search:50,check:20,create:10,patch:15,delete:5}).
+ */
+@Tag("load")
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "books.indexes.verify-on-startup=false")
+public class BookApiLoadTest {
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+    private static final InetSocketAddress MONGO_ADDRESS = MONGO.bind();
+
+    private static final String[] WORDS = {
+            "clean", "code", "domain", "driven", "design", "pragmatic", "programmer", "refactoring",
+            "patterns", "effective", "java", "concurrency", "practice", "systems", "data", "intensive",
+            "release", "working", "legacy", "architecture", "distributed", "reliable", "scalable", "modern"
+    };
+    private static final String[] AUTHORS = {
+            "Robert Martin", "Eric Evans", "Andrew Hunt", "Martin Fowler", "Joshua Bloch", "Brian Goetz",
+            "Martin Kleppmann", "Michael Nygard", "Michael Feathers", "Sam Newman", "Kent Beck", "Gregor Hohpe"
+    };
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () ->
+                "mongodb://" + MONGO_ADDRESS.getHostString() + ":" + MONGO_ADDRESS.getPort() + "/bookmanagement");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        MONGO.shutdown();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final IdPool ids = new IdPool();
+
+    @Test
+    void runMixedWorkload() throws Exception {
+        int catalogSize = Integer.getInteger("loadtest.catalogSize", 2_000);
+        int rate = Integer.getInteger("loadtest.rate", 50);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 5);
+        int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 20);
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", "search:50,check:20,create:10,patch:15,delete:5"));
+
+        seed(catalogSize);
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        mix.keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+
+        drive(rate, warmupSeconds, mix, stats);
+        stats.values().forEach(EndpointStats::reset);
+        long start = System.nanoTime();
+        drive(rate, durationSeconds, mix, stats);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        String report = report(catalogSize, rate, elapsedSeconds, stats);
+        System.out.println(report);
+        Path reportFile = Path.of("target", "loadtest-report.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        long requests = stats.values().stream().mapToLong(s -> s.requests.get()).sum();
+        long errors = stats.values().stream().mapToLong(s -> s.errors.get()).sum();
+        assertTrue(errors <= requests / 100, "More than 1% of requests failed:\n" + report);
+    }
+
+    private void seed(int catalogSize) throws IOException, InterruptedException {
+        int chunk = 1_000;
+        for (int offset = 0; offset < catalogSize; offset += chunk) {
+            List<BookDTO> books = new ArrayList<>();
+            for (int i = offset; i < Math.min(catalogSize, offset + chunk); i++) {
+                books.add(randomBook());
+            }
+            HttpResponse<String> response = client.send(
+                    request("/api/books/bulk")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(books)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            BulkCreateResult result = objectMapper.readValue(response.body(), BulkCreateResult.class);
+            result.getItems().stream()
+                    .map(BulkItemResult::getId)
+                    .filter(id -> id != null)
+                    .forEach(ids::add);
+        }
+    }
+
+    /**
+     * Issues requests on a fixed schedule for the given time, regardless of how fast responses come back.
+     */
+    private void drive(int rate, int seconds, Map<String, Integer> mix, Map<String, EndpointStats> stats)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        int weightSum = mix.values().stream().mapToInt(Integer::intValue).sum();
+        AtomicLong outstanding = new AtomicLong();
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String operation = pick(mix, weightSum);
+            EndpointStats endpoint = stats.get(operation);
+            outstanding.incrementAndGet();
+            client.sendAsync(buildRequest(operation), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long micros = (System.nanoTime() - intended) / 1_000;
+                        endpoint.record(micros, failure == null && isExpected(operation, response));
+                        if (failure == null) {
+                            afterResponse(operation, response);
+                        }
+                        outstanding.decrementAndGet();
+                    });
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest buildRequest(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            return switch (operation) {
+                case "search" -> {
+                    String query = switch (random.nextInt(4)) {
+                        case 0 -> "title=" + encode(WORDS[random.nextInt(WORDS.length)]);
+                        case 1 -> "author=" + encode(AUTHORS[random.nextInt(AUTHORS.length)].split(" ")[1]);
+                        case 2 -> "title=" + encode(WORDS[random.nextInt(WORDS.length)]) + "&available=true";
+                        default -> "available=" + random.nextBoolean() + "&limit=50";
+                    };
+                    yield request("/api/books/search?" + query).GET().build();
+                }
+                case "check" -> request("/api/books/check").GET().build();
+                case "create" -> request("/api/books/create")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(randomBook())))
+                        .build();
+                case "patch" -> request("/api/books/" + ids.random())
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"available\": " + random.nextBoolean() + "}"))
+                        .build();
+                case "delete" -> request("/api/books/" + ids.take()).DELETE().build();
+                default -> throw new IllegalArgumentException("Unknown operation " + operation);
+            };
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void afterResponse(String operation, HttpResponse<String> response) {
+        String prefix = "Book created with id: ";
+        if (operation.equals("create") && response.statusCode() == 200 && response.body().startsWith(prefix)) {
+            ids.add(response.body().substring(prefix.length()));
+        }
+    }
+
+    /**
+     * Patching or deleting a book that a concurrent delete already removed is a legitimate 404.
+     */
+    private static boolean isExpected(String operation, HttpResponse<String> response) {
+        int status = response.statusCode();
+        return status < 400 || (status == 404 && (operation.equals("patch") || operation.equals("delete")));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static BookDTO randomBook() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + random.nextInt(10_000);
+        return new BookDTO(title, AUTHORS[random.nextInt(AUTHORS.length)],
+                "A book about " + WORDS[random.nextInt(WORDS.length)], random.nextInt(4) != 0);
+    }
+
+    private static String pick(Map<String, Integer> mix, int weightSum) {
+        int roll = ThreadLocalRandom.current().nextInt(weightSum);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] operationAndWeight = part.trim().split(":");
+            weights.put(operationAndWeight[0], Integer.parseInt(operationAndWeight[1]));
+        }
+        return weights;
+    }
+
+    private static String report(int catalogSize, int rate, double elapsedSeconds, Map<String, EndpointStats> stats) {
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Load test: catalog=%d books, target rate=%d req/s, measured for %.1f s, profiles=%s%n",
+                        catalogSize, rate, elapsedSeconds, System.getProperty("spring.profiles.active", "default")))
+                .append(String.format("%-8s %9s %7s %10s %9s %9s %9s %9s%n",
+                        "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        stats.forEach((operation, endpoint) -> {
+            Histogram histogram = endpoint.recorder.getIntervalHistogram();
+            report.append(String.format("%-8s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation,
+                    endpoint.requests.get(),
+                    endpoint.errors.get(),
+                    endpoint.requests.get() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0));
+        });
+        return report.toString();
+    }
+
+    private static final class EndpointStats {
+        private final Recorder recorder = new Recorder(3);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long micros, boolean success) {
+            recorder.recordValue(micros);
+            requests.incrementAndGet();
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void reset() {
+            recorder.reset();
+            requests.set(0);
+            errors.set(0);
+        }
+    }
+
+    /**
+     * Ids of books known to exist, for patch and delete targets.
+     */
+    private static final class IdPool {
+        private final List<String> ids = new ArrayList<>();
+
+        synchronized void add(String id) {
+            ids.add(id);
+        }
+
+        synchronized String random() {
+            return ids.isEmpty() ? "000000000000000000000000" : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized String take() {
+            if (ids.isEmpty()) {
+                return "000000000000000000000000";
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            String id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bookmanagement.metrics;
+
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MongoDocumentMetricsListenerTest {
+
+    @Test
+    void testDocumentCount_shouldReadBatchSizesAndWriteCounts() {
+        assertEquals(2, MongoDocumentMetricsListener.documentCount("find",
+                BsonDocument.parse("{cursor: {id: 0, ns: 'db.book', firstBatch: [{}, {}]}, ok: 1}")));
+        assertEquals(3, MongoDocumentMetricsListener.documentCount("getMore",
+                BsonDocument.parse("{cursor: {id: 0, ns: 'db.book', nextBatch: [{}, {}, {}]}, ok: 1}")));
+        assertEquals(5, MongoDocumentMetricsListener.documentCount("insert", BsonDocument.parse("{n: 5, ok: 1}")));
+        assertEquals(0, MongoDocumentMetricsListener.documentCount("findAndModify",
+                BsonDocument.parse("{lastErrorObject: {n: 0}, value: null, ok: 1}")));
+    }
+
+    @Test
+    void testDocumentCount_shouldIgnoreCommandsWithoutDocuments() {
+        assertEquals(-1, MongoDocumentMetricsListener.documentCount("ping", BsonDocument.parse("{ok: 1}")));
+        assertEquals(-1, MongoDocumentMetricsListener.documentCount("find", BsonDocument.parse("{ok: 0}")));
+    }
+
+    @Test
+    void testCommandSucceeded_shouldRecordSummaryPerCommand() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MongoDocumentMetricsListener listener = new MongoDocumentMetricsListener(registry);
+        CommandSucceededEvent event = mock(CommandSucceededEvent.class);
+        when(event.getCommandName()).thenReturn("find");
+        when(event.getResponse()).thenReturn(
+                BsonDocument.parse("{cursor: {id: 0, ns: 'db.book', firstBatch: [{}, {}, {}, {}]}, ok: 1}"));
+
+        listener.commandSucceeded(event);
+        listener.commandSucceeded(event);
+
+        DistributionSummary summary = registry.get(MongoDocumentMetricsListener.METRIC_NAME)
+                .tag("command", "find")
+                .summary();
+        assertEquals(2, summary.count());
+        assertEquals(8, summary.totalAmount());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.bookmanagement.metrics;
+
+import com.example.bookmanagement.dto.SlowQuery;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SlowQueryDetectorTest {
+
+    @Test
+    void testShape_shouldRedactLiteralsButKeepFieldsOperatorsAndSort() {
+        BsonDocument command = BsonDocument.parse("{find: 'book', "
+                + "filter: {title: {$regex: 'secret', $options: 'i'}, available: true}, "
+                + "sort: {_id: 1}, limit: 51, lsid: {id: 1}, $db: 'bookmanagement'}");
+
+        BsonDocument shape = SlowQueryDetector.shape(command, "find");
+
+        assertEquals(BsonDocument.parse("{find: 'book', "
+                + "filter: {title: '/?/i', available: '?'}, "
+                + "sort: {_id: 1}, limit: 51}"), shape);
+    }
+
+    @Test
+    void testShape_shouldRedactEachStatementOfWriteCommands() {
+        BsonDocument command = BsonDocument.parse("{delete: 'book', deletes: [{q: {_id: 'abc'}, limit: 1}]}");
+
+        assertEquals(BsonDocument.parse("{delete: 'book', deletes: [{q: {_id: '?'}, limit: '?'}]}"),
+                SlowQueryDetector.shape(command, "delete"));
+    }
+
+    @Test
+    void testCopy_whenCommandHasTooManyValues_shouldGiveUp() {
+        BsonDocument command = BsonDocument.parse("{find: 'book', filter: {_id: {$in: ['a', 'b', 'c']}}, limit: 5}");
+
+        assertEquals(command, SlowQueryDetector.copy(command, 9));
+        assertNull(SlowQueryDetector.copy(command, 8));
+    }
+
+    @Test
+    void testCommandSucceeded_whenCommandIsTooLargeToCopy_shouldRecordShapeWithoutExplain() {
+        ObjectProvider<MongoClient> clientProvider = emptyClientProvider();
+        SlowQueryLog slowQueryLog = new SlowQueryLog(10);
+        SlowQueryDetector detector = new SlowQueryDetector(slowQueryLog, clientProvider, 100, true, 60_000);
+        BsonArray ids = new BsonArray();
+        for (int i = 0; i <= SlowQueryDetector.MAX_COPIED_VALUES; i++) {
+            ids.add(new BsonString("id" + i));
+        }
+        CommandStartedEvent started = started(1);
+        when(started.getCommand()).thenReturn(new BsonDocument("find", new BsonString("book"))
+                .append("filter", new BsonDocument("_id", new BsonDocument("$in", ids))));
+
+        detector.commandStarted(started);
+        detector.commandSucceeded(succeeded(1, 250));
+
+        SlowQuery recorded = slowQueryLog.recent().get(0);
+        assertEquals("book", recorded.getCollection());
+        assertEquals("{\"find\": \"book\", \"filter\": {\"_id\": {\"$in\": \"?\"}}}", recorded.getShape());
+        assertTrue(recorded.getExplainError().startsWith("Explain skipped"));
+        verify(clientProvider, never()).getIfAvailable();
+        detector.destroy();
+    }
+
+    @Test
+    void testSummarizePlan_shouldNestInputStagesWithIndexNames() {
+        Document plan = Document.parse("{stage: 'PROJECTION_COVERED', inputStage: "
+                + "{stage: 'IXSCAN', indexName: 'available_title'}}");
+
+        assertEquals("PROJECTION_COVERED(IXSCAN[available_title])", SlowQueryDetector.summarizePlan(plan));
+        assertEquals("COLLSCAN", SlowQueryDetector.summarizePlan(Document.parse("{queryPlan: {stage: 'COLLSCAN'}}")));
+    }
+
+    @Test
+    void testCommandSucceeded_shouldRecordOnlyQueriesOverThreshold() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(10);
+        SlowQueryDetector detector = new SlowQueryDetector(slowQueryLog, emptyClientProvider(), 100, false, 60_000);
+
+        detector.commandStarted(started(1));
+        detector.commandSucceeded(succeeded(1, 5));
+        detector.commandStarted(started(2));
+        detector.commandSucceeded(succeeded(2, 250));
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertEquals(1, recent.size());
+        assertEquals("book", recent.get(0).getCollection());
+        assertEquals(250, recent.get(0).getDurationMillis());
+        assertEquals(2L, recent.get(0).getDocsReturned());
+        assertEquals("{\"find\": \"book\", \"filter\": {\"author\": \"?\"}}", recent.get(0).getShape());
+    }
+
+    @Test
+    void testCommandSucceeded_shouldExplainEachShapeOncePerInterval() {
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.runCommand(any(BsonDocument.class))).thenReturn(Document.parse(
+                "{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN', indexName: 'author'}}}, "
+                        + "executionStats: {totalDocsExamined: 2, totalKeysExamined: 2}}"));
+        MongoClient client = mock(MongoClient.class);
+        when(client.getDatabase("bookmanagement")).thenReturn(database);
+        ObjectProvider<MongoClient> clientProvider = emptyClientProvider();
+        when(clientProvider.getIfAvailable()).thenReturn(client);
+        SlowQueryLog slowQueryLog = new SlowQueryLog(10);
+        SlowQueryDetector detector = new SlowQueryDetector(slowQueryLog, clientProvider, 0, true, 60_000);
+
+        detector.commandStarted(started(1));
+        detector.commandSucceeded(succeeded(1, 150));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (slowQueryLog.recent().isEmpty() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        detector.commandStarted(started(2));
+        detector.commandSucceeded(succeeded(2, 150));
+
+        verify(database, times(1)).runCommand(any(BsonDocument.class));
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertEquals(2, recent.size());
+        assertEquals("FETCH(IXSCAN[author])", recent.get(0).getPlan());
+        assertNull(recent.get(0).getDocsExamined());
+        assertEquals(2L, recent.get(1).getDocsExamined());
+        detector.destroy();
+    }
+
+    @Test
+    void testSlowQueryLog_shouldKeepNewestEntriesFirst() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(2);
+        slowQueryLog.add(entry("first"));
+        slowQueryLog.add(entry("second"));
+        slowQueryLog.add(entry("third"));
+
+        assertEquals(List.of("third", "second"),
+                slowQueryLog.recent().stream().map(SlowQuery::getCollection).toList());
+
+        slowQueryLog.clear();
+        assertTrue(slowQueryLog.recent().isEmpty());
+    }
+
+    private static CommandStartedEvent started(int requestId) {
+        CommandStartedEvent event = mock(CommandStartedEvent.class);
+        when(event.getRequestId()).thenReturn(requestId);
+        when(event.getCommandName()).thenReturn("find");
+        when(event.getDatabaseName()).thenReturn("bookmanagement");
+        when(event.getCommand()).thenReturn(BsonDocument.parse("{find: 'book', filter: {author: 'Fowler'}}"));
+        return event;
+    }
+
+    private static CommandSucceededEvent succeeded(int requestId, long millis) {
+        CommandSucceededEvent event = mock(CommandSucceededEvent.class);
+        when(event.getRequestId()).thenReturn(requestId);
+        when(event.getCommandName()).thenReturn("find");
+        when(event.getElapsedTime(any(TimeUnit.class)))
+                .thenAnswer(invocation -> invocation.<TimeUnit>getArgument(0).convert(millis, TimeUnit.MILLISECONDS));
+        when(event.getResponse()).thenReturn(BsonDocument.parse("{cursor: {id: 0, firstBatch: [{}, {}]}, ok: 1}"));
+        return event;
+    }
+
+    private static SlowQuery entry(String collection) {
+        return new SlowQuery(Instant.now(), "bookmanagement", collection, "find", 200, "{}", 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MongoClient> emptyClientProvider() {
+        return mock(ObjectProvider.class);
+    }
+}
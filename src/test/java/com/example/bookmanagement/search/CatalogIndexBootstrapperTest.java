@@ -0,0 +1,74 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.event.CatalogReloadedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CatalogIndexBootstrapperTest {
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final List<Object> published = new ArrayList<>();
+    private final TrigramIndex trigramIndex = new TrigramIndex(true);
+    private final CatalogIndexBootstrapper bootstrapper = new CatalogIndexBootstrapper(
+            bookRepository, published::add, List.of(trigramIndex, new TrigramIndex(false)), 1, 4);
+
+    @Test
+    void testLoadUntilDone_whenPassFails_shouldResetIndexesAndRetry() {
+        when(bookRepository.streamBooks(null, null, null, Book.class))
+                .thenReturn(Stream.concat(Stream.of(book("1", "Clean Code")), Stream.generate(() -> {
+                    throw new DataAccessResourceFailureException("Connection reset");
+                })))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(Stream.of(book("1", "Clean Code"), book("2", "Refactoring")));
+
+        bootstrapper.loadUntilDone(List.of(trigramIndex));
+
+        verify(bookRepository, times(3)).streamBooks(null, null, null, Book.class);
+        assertTrue(trigramIndex.isReady());
+        assertEquals(Optional.of(List.of("2")), trigramIndex.search("factor", null, null));
+        assertEquals(1, published.size());
+        assertInstanceOf(CatalogReloadedEvent.class, published.get(0));
+    }
+    @Test
+    void testOnIndexStale_shouldReloadIndexInBackground() throws InterruptedException {
+        when(bookRepository.streamBooks(null, null, null, Book.class))
+                .thenReturn(Stream.of(book("1", "Clean Code")));
+
+        bootstrapper.onIndexStale(new CatalogIndexStaleEvent(trigramIndex));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!trigramIndex.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(trigramIndex.isReady());
+        assertEquals(Optional.of(List.of("1")), trigramIndex.search("clean", null, null));
+    }
+    @Test
+    void testLoadAll_whenPassFails_shouldLeaveIndexesIdle() {
+        when(bookRepository.streamBooks(null, null, null, Book.class))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertFalse(bootstrapper.loadAll(List.of(trigramIndex)));
+        trigramIndex.onBookChanged(BookChangedEvent.created(book("3", "Clean Agile")));
+
+        assertFalse(trigramIndex.isReady());
+        assertEquals(Optional.of(List.of()), trigramIndex.search("clean", null, null));
+        assertTrue(published.isEmpty());
+    }
+
+    private static Book book(String id, String title) {
+        Book book = new Book(title, "Author", null, true);
+        book.setId(id);
+        return book;
+    }
+}
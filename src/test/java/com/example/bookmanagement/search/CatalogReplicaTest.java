@@ -0,0 +1,159 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.dto.BookDTO;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogReplicaTest {
+    @TempDir
+    Path directory;
+
+    private final List<Object> published = new ArrayList<>();
+    private CatalogReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = newReplica();
+        replica.beginLoad();
+        replica.load(book("1", "Clean Code", "Robert C. Martin", true));
+        replica.load(book("2", "Clean Architecture", "Robert C. Martin", false));
+        replica.load(book("3", "Refactoring", "Martin Fowler", true));
+        replica.finishLoad();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.destroy();
+    }
+
+    @Test
+    void testSearch_shouldFilterOnTermsAndAvailability() {
+        assertEquals(List.of("1", "2"), ids(replica.search("CLEAN", null, null)));
+        assertEquals(List.of("1", "3"), ids(replica.search(null, "martin", true)));
+        assertEquals(List.of("2"), ids(replica.search(null, null, false)));
+        assertEquals(Optional.of(List.of(new BookDTO("3", "Refactoring", "Martin Fowler", "Desc", true))),
+                replica.search("factor", "fowl", null));
+        assertEquals(Optional.of(List.of("Clean Code", "Refactoring")), replica.getAvailableTitles());
+    }
+    @Test
+    void testSearch_withCandidateIds_shouldReadOnlyCandidatesThatStillMatch() {
+        assertEquals(List.of("3", "1"), ids(replica.search(List.of("3", "missing", "2", "1"), null, "martin", true)));
+        assertEquals(List.of("2"), ids(replica.search(List.of("1", "2", "3"), "architecture", null, null)));
+        assertEquals(Optional.of(List.of(new BookDTO("1", "Clean Code", "Robert C. Martin", "Desc", true))),
+                replica.search(List.of("1"), "CODE", "ROBERT", null));
+    }
+    @Test
+    void testSearch_withNonAsciiTerms_shouldIgnoreCase() {
+        replica.onBookChanged(BookChangedEvent.created(book("4", "ÉTUDES DE STYLE", "Émile Zola", true)));
+
+        assertEquals(List.of("4"), ids(replica.search("études", "ÉMILE", null)));
+        assertEquals(List.of("4"), ids(replica.search(List.of("4"), "de st", "zola", true)));
+        assertEquals(List.of(), ids(replica.search("etudes", null, null)));
+    }
+    @Test
+    void testOnBookChanged_shouldKeepReplicaInSync() {
+        replica.onBookChanged(BookChangedEvent.updated(
+                book("3", "Refactoring", "Martin Fowler", true),
+                book("3", "Refactoring, Second Edition", "Martin Fowler", false)));
+        replica.onBookChanged(BookChangedEvent.deleted(book("1", "Clean Code", "Robert C. Martin", true)));
+        replica.onBookChanged(BookChangedEvent.created(book("4", "Clean Agile", "Robert C. Martin", true)));
+
+        assertEquals(List.of("3"), ids(replica.search("second", null, false)));
+        assertEquals(List.of("2", "4"), ids(replica.search("clean", null, null)));
+        assertEquals(Optional.of(List.of("Clean Agile")), replica.getAvailableTitles());
+    }
+    @Test
+    void testOnBookChanged_whenSegmentIsFull_shouldGrowAndKeepEveryBook() {
+        int created = CatalogReplica.MIN_SLOTS * 3;
+        for (int i = 0; i < created; i++) {
+            replica.onBookChanged(BookChangedEvent.created(book("n" + i, "Title " + i, "Author " + i, i % 2 == 0)));
+        }
+
+        assertEquals(created + 3, replica.search(null, null, null).orElseThrow().size());
+        assertEquals(List.of("n2999"), ids(replica.search("title 2999", null, null)));
+    }
+    @Test
+    void testAfterPropertiesSet_whenClosedCleanly_shouldServeMappedFileAtOnce() {
+        replica.onBookChanged(BookChangedEvent.created(book("4", "Clean Agile", "Robert C. Martin", true)));
+        replica.destroy();
+
+        replica = newReplica();
+        assertTrue(replica.isReady());
+        assertEquals(List.of("1", "2", "4"), ids(replica.search("clean", null, null)));
+
+        // The reload from Mongo replaces the mapped copy.
+        replica.beginLoad();
+        replica.load(book("1", "Clean Code", "Robert C. Martin", true));
+        assertEquals(List.of("1", "2", "4"), ids(replica.search("clean", null, null)));
+        replica.finishLoad();
+        assertEquals(List.of("1"), ids(replica.search("clean", null, null)));
+    }
+    @Test
+    void testAfterPropertiesSet_whenNotClosedCleanly_shouldWaitForReload() {
+        CatalogReplica restarted = newReplica();
+
+        assertFalse(restarted.isReady());
+        assertEquals(Optional.empty(), restarted.search(null, null, null));
+    }
+    @Test
+    void testLoad_whenBookChangedDuringLoad_shouldKeepNewerVersion() {
+        replica.beginLoad();
+        replica.onBookChanged(BookChangedEvent.updated(
+                book("1", "Clean Code", "Robert C. Martin", true),
+                book("1", "Clean Code", "Uncle Bob", true)));
+        replica.load(book("1", "Clean Code", "Robert C. Martin", true));
+        replica.finishLoad();
+
+        assertEquals(List.of("1"), ids(replica.search(null, "uncle", null)));
+        assertEquals(List.of(), ids(replica.search(null, "robert", null)));
+    }
+
+    @Test
+    void testOnBookChanged_whenWriteCannotBeApplied_shouldStopServingAndAskForReload() throws IOException {
+        // A directory where the grown copy would go makes the segment unable to grow.
+        Files.createDirectory(directory.resolve("catalog.replica.grow"));
+        for (int i = 0; i < CatalogReplica.MIN_SLOTS; i++) {
+            replica.onBookChanged(BookChangedEvent.created(book("n" + i, "Title " + i, "Author " + i, true)));
+        }
+
+        assertFalse(replica.isReady());
+        assertEquals(Optional.empty(), replica.search(null, null, null));
+        assertEquals(1, published.size());
+        assertSame(replica, ((CatalogIndexStaleEvent) published.get(0)).getIndex());
+
+        replica.beginLoad();
+        replica.load(book("1", "Clean Code", "Robert C. Martin", true));
+        replica.finishLoad();
+        assertEquals(List.of("1"), ids(replica.search(null, null, null)));
+    }
+
+    private CatalogReplica newReplica() {
+        CatalogReplica catalogReplica =
+                new CatalogReplica(true, directory.resolve("catalog.replica").toString(), published::add);
+        catalogReplica.afterPropertiesSet();
+        return catalogReplica;
+    }
+
+    private static List<String> ids(Optional<List<BookDTO>> books) {
+        return books.orElseThrow().stream().map(BookDTO::id).toList();
+    }
+
+    private static Book book(String id, String title, String author, boolean available) {
+        Book book = new Book(title, author, "Desc", available);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.dto.BookSuggestions;
+import com.example.bookmanagement.dto.Suggestion;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionIndexTest {
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex(true);
+        index.beginLoad();
+        index.load(book("1", "Clean Code", "Robert C. Martin"));
+        index.load(book("2", "Clean Architecture", "Robert C. Martin"));
+        index.load(book("3", "Refactoring", "Martin Fowler"));
+        index.load(book("4", "Code Complete", "Steve McConnell"));
+        index.finishLoad();
+    }
+
+    @Test
+    void testSuggest_shouldCompleteAnyWordIgnoringCase() {
+        assertEquals(List.of(new Suggestion("Clean Architecture", 1), new Suggestion("Clean Code", 1)),
+                index.suggest("CLE", 10).titles());
+        assertEquals(List.of(new Suggestion("Clean Code", 1), new Suggestion("Code Complete", 1)),
+                index.suggest("cod", 10).titles());
+        assertEquals(List.of(new Suggestion("Code Complete", 1)), index.suggest("code c", 10).titles());
+        assertEquals(List.of(), index.suggest("codex", 10).titles());
+    }
+    @Test
+    void testSuggest_shouldRankByNumberOfBooksAndApplyLimit() {
+        BookSuggestions suggestions = index.suggest("mar", 10);
+        assertEquals(List.of(new Suggestion("Robert C. Martin", 2), new Suggestion("Martin Fowler", 1)),
+                suggestions.authors());
+        assertEquals(List.of(new Suggestion("Robert C. Martin", 2)), index.suggest("m", 1).authors());
+    }
+    @Test
+    void testOnBookChanged_shouldUpdateCompletionsAndCounts() {
+        index.suggest("c", 10);
+        index.onBookChanged(BookChangedEvent.updated(
+                book("1", "Clean Code", "Robert C. Martin"), book("1", "Clean Code", "Uncle Bob")));
+        index.onBookChanged(BookChangedEvent.deleted(book("4", "Code Complete", "Steve McConnell")));
+        index.onBookChanged(BookChangedEvent.created(book("5", "Clean Agile", "Uncle Bob")));
+
+        assertEquals(List.of(new Suggestion("Uncle Bob", 2)), index.suggest("bob", 10).authors());
+        assertEquals(List.of(new Suggestion("Martin Fowler", 1), new Suggestion("Robert C. Martin", 1)),
+                index.suggest("mar", 10).authors());
+        assertEquals(List.of(new Suggestion("Clean Code", 1)), index.suggest("co", 10).titles());
+        assertEquals(3, index.suggest("cl", 10).titles().size());
+    }
+    @Test
+    void testSuggest_beforeLoad_shouldReturnNothing() {
+        SuggestionIndex loading = new SuggestionIndex(true);
+
+        assertEquals(new BookSuggestions(List.of(), List.of()), loading.suggest("clean", 10));
+        assertThrows(IllegalArgumentException.class, () -> loading.suggest(" ", 10));
+        assertThrows(IllegalArgumentException.class, () -> loading.suggest("c", SuggestionIndex.MAX_SUGGESTIONS + 1));
+    }
+    @Test
+    void testWordStarts_shouldSkipPunctuationAndSpaces() {
+        assertEquals(List.of(0, 7, 10), SuggestionIndex.wordStarts("robert c. martin"));
+    }
+
+    private static Book book(String id, String title, String author) {
+        Book book = new Book(title, author, null, true);
+        book.setId(id);
+        return book;
+    }
+}
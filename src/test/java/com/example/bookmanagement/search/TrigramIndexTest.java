@@ -0,0 +1,72 @@
+package com.example.bookmanagement.search;
+
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(true);
+        index.beginLoad();
+        index.load(book("1", "Clean Code", "Robert C. Martin", true));
+        index.load(book("2", "Clean Architecture", "Robert C. Martin", false));
+        index.load(book("3", "Refactoring", "Martin Fowler", true));
+        index.finishLoad();
+    }
+
+    @Test
+    void testSearch_shouldMatchSubstringsIgnoringCase() {
+        assertEquals(Optional.of(List.of("1", "2")), index.search("CLEAN", null, null));
+        assertEquals(Optional.of(List.of("1", "2", "3")), index.search(null, "martin", null));
+        assertEquals(Optional.of(List.of("3")), index.search("factor", "fowl", true));
+    }
+    @Test
+    void testSearch_shouldVerifyCandidatesAgainstAllFilters() {
+        assertEquals(Optional.of(List.of("1")), index.search("clean", null, true));
+        assertEquals(Optional.of(List.of("2")), index.search("clean", "ro", false));
+        assertEquals(Optional.of(List.of()), index.search("code arch", null, null));
+    }
+    @Test
+    void testSearch_whenNoTermHasATrigram_shouldNotAnswer() {
+        assertEquals(Optional.empty(), index.search("cl", "ma", true));
+        assertEquals(Optional.empty(), index.search(null, null, true));
+    }
+    @Test
+    void testOnBookChanged_shouldKeepPostingsInSync() {
+        index.onBookChanged(BookChangedEvent.updated(
+                book("3", "Refactoring", "Martin Fowler", true),
+                book("3", "Refactoring, Second Edition", "Martin Fowler", true)));
+        index.onBookChanged(BookChangedEvent.deleted(book("1", "Clean Code", "Robert C. Martin", true)));
+        index.onBookChanged(BookChangedEvent.created(book("4", "Clean Agile", "Robert C. Martin", true)));
+
+        assertEquals(Optional.of(List.of("3")), index.search("second", null, null));
+        assertEquals(Optional.of(List.of("2", "4")), index.search("clean", null, null));
+    }
+    @Test
+    void testLoad_whenBookChangedDuringLoad_shouldKeepNewerVersion() {
+        index.beginLoad();
+        index.onBookChanged(BookChangedEvent.updated(
+                book("1", "Clean Code", "Robert C. Martin", true),
+                book("1", "Clean Code", "Uncle Bob", true)));
+        index.load(book("1", "Clean Code", "Robert C. Martin", true));
+        index.finishLoad();
+
+        assertEquals(Optional.of(List.of("1")), index.search(null, "uncle", null));
+        assertEquals(Optional.of(List.of()), index.search(null, "robert", null));
+    }
+
+    private static Book book(String id, String title, String author, boolean available) {
+        Book book = new Book(title, author, null, available);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.bookmanagement.stats;
+
+import com.example.bookmanagement.dto.AuthorCount;
+import com.example.bookmanagement.dto.CatalogStats;
+import com.example.bookmanagement.event.BookChangedEvent;
+import com.example.bookmanagement.model.Book;
+import com.example.bookmanagement.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class CatalogStatisticsTest {
+    private final List<Book> catalog = List.of(
+            book("1", "Martin Fowler", true),
+            book("2", "Martin Fowler", false),
+            book("3", "Robert C. Martin", true),
+            book("4", "Robert C. Martin", true),
+            book("5", "Robert C. Martin", false),
+            book("6", "Kent Beck", false));
+    private BookRepository bookRepository;
+    private CatalogStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.countBooksByAuthor()).thenReturn(List.of(
+                new AuthorCount("Martin Fowler", 2, 1),
+                new AuthorCount("Robert C. Martin", 3, 2),
+                new AuthorCount("Kent Beck", 1, 0)));
+        statistics = new CatalogStatistics(bookRepository, true);
+    }
+
+    @Test
+    void testGetStats_afterLoad_shouldRankAuthorsWithoutQuerying() {
+        load(catalog);
+
+        CatalogStats stats = statistics.getStats(2);
+
+        assertEquals(new CatalogStats(6, 3, 3, List.of(
+                new AuthorCount("Robert C. Martin", 3, 2),
+                new AuthorCount("Martin Fowler", 2, 1))), stats);
+        statistics.getStats(10);
+        verifyNoInteractions(bookRepository);
+    }
+    @Test
+    void testOnBookChanged_shouldAdjustCountsAndRanking() {
+        load(catalog);
+
+        statistics.onBookChanged(BookChangedEvent.created(book("7", "Martin Fowler", true)));
+        statistics.onBookChanged(BookChangedEvent.created(book("8", "Martin Fowler", true)));
+        statistics.onBookChanged(BookChangedEvent.updated(book("3", "Robert C. Martin", true), book("3", "Robert C. Martin", false)));
+        statistics.onBookChanged(BookChangedEvent.deleted(book("6", "Kent Beck", false)));
+
+        assertEquals(new CatalogStats(7, 4, 3, List.of(
+                new AuthorCount("Martin Fowler", 4, 3),
+                new AuthorCount("Robert C. Martin", 3, 1))), statistics.getStats(5));
+    }
+    @Test
+    void testOnBookChanged_whenAuthorChanges_shouldMoveTheBook() {
+        load(catalog);
+
+        statistics.onBookChanged(BookChangedEvent.updated(book("6", "Kent Beck", false), book("6", "Erich Gamma", true)));
+
+        CatalogStats stats = statistics.getStats(5);
+        assertEquals(6, stats.total());
+        assertEquals(4, stats.available());
+        assertEquals(new AuthorCount("Erich Gamma", 1, 1), stats.topAuthors().get(2));
+        assertEquals(3, stats.topAuthors().size());
+    }
+    @Test
+    void testLoad_whenBooksChangeDuringLoad_shouldInstallExactCounts() {
+        statistics.beginLoad();
+        statistics.load(catalog.get(0));
+        statistics.load(catalog.get(1));
+        // Changes to a book the cursor already returned, and to books it has not reached yet.
+        statistics.onBookChanged(BookChangedEvent.updated(book("1", "Martin Fowler", true), book("1", "Kent Beck", true)));
+        statistics.onBookChanged(BookChangedEvent.deleted(book("3", "Robert C. Martin", true)));
+        statistics.onBookChanged(BookChangedEvent.updated(book("4", "Robert C. Martin", true), book("4", "Robert C. Martin", false)));
+        statistics.onBookChanged(BookChangedEvent.created(book("7", "Kent Beck", true)));
+        catalog.stream().skip(2).forEach(statistics::load);
+        // The cursor returned the new book too, and one book twice.
+        statistics.load(book("7", "Kent Beck", true));
+        statistics.load(catalog.get(5));
+        statistics.finishLoad();
+
+        assertEquals(new CatalogStats(6, 2, 4, List.of(
+                new AuthorCount("Kent Beck", 3, 2),
+                new AuthorCount("Robert C. Martin", 2, 0),
+                new AuthorCount("Martin Fowler", 1, 0))), statistics.getStats(5));
+    }
+    @Test
+    void testLoad_whenReloading_shouldServePreviousCountsUntilFinished() {
+        load(catalog);
+
+        statistics.beginLoad();
+        statistics.load(catalog.get(0));
+        statistics.onBookChanged(BookChangedEvent.created(book("7", "Kent Beck", true)));
+        assertEquals(7, statistics.getStats(0).total());
+
+        statistics.abortLoad();
+        statistics.onBookChanged(BookChangedEvent.deleted(book("7", "Kent Beck", true)));
+        assertEquals(6, statistics.getStats(0).total());
+        verifyNoInteractions(bookRepository);
+    }
+    @Test
+    void testGetStats_beforeLoad_shouldAggregate() {
+        statistics.onBookChanged(BookChangedEvent.created(book("7", "Kent Beck", true)));
+        statistics.beginLoad();
+        statistics.abortLoad();
+
+        CatalogStats stats = statistics.getStats(1);
+
+        assertFalse(statistics.isReady());
+        assertEquals(new CatalogStats(6, 3, 3, List.of(new AuthorCount("Robert C. Martin", 3, 2))), stats);
+        statistics.getStats(1);
+        verify(bookRepository, times(2)).countBooksByAuthor();
+    }
+    @Test
+    void testGetStats_whenTopOutOfRange_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> statistics.getStats(-1));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getStats(CatalogStatistics.MAX_TOP_AUTHORS + 1));
+    }
+
+    private void load(List<Book> books) {
+        statistics.beginLoad();
+        books.forEach(statistics::load);
+        statistics.finishLoad();
+    }
+
+    private static Book book(String id, String author, boolean available) {
+        Book book = new Book("Title", author, "Desc", available);
+        book.setId(id);
+        return book;
+    }
+}